@@ -0,0 +1,119 @@
+import benchmarks.SchoolFixture;
+
+import java.time.LocalDate;
+
+// SchoolFixture over the application's classes, which live in the default package
+public class BenchmarkFixture implements SchoolFixture {
+    // One academic year of generated data, 2025-2026
+    private static final int FIRST_YEAR = 2025;
+    private static final String SEMESTER = "Fall";
+    private static final String ACADEMIC_YEAR = FIRST_YEAR + "-" + (FIRST_YEAR + 1);
+
+    private final SchoolManagementSystem school = new SchoolManagementSystem();
+    private final LoginSystem loginSystem = new LoginSystem();
+    private String[] studentIds = new String[0];
+    private String[] keywords = new String[0];
+    private LocalDate[] schoolDays = new LocalDate[0];
+
+    @Override
+    public void populate(int students, int subjectsPerStudent, int attendanceDays, long seed) {
+        SampleDataGenerator generator = new SampleDataGenerator()
+                .students(students)
+                .years(1)
+                .firstYear(FIRST_YEAR)
+                .schoolDaysPerYear(attendanceDays)
+                .subjectsPerStudent(subjectsPerStudent)
+                .examsPerSubjectPerTerm(1)
+                .userAccounts(false)
+                .seed(seed);
+        generator.populate(school, loginSystem);
+        schoolDays = generator.schoolDays()[0];
+
+        // The generator numbers students from STU1
+        studentIds = new String[students];
+        keywords = new String[Math.min(students, 1024)];
+        for (int i = 0; i < students; i++) {
+            studentIds[i] = "STU" + (i + 1);
+            if (i < keywords.length) {
+                String lastName = school.getStudent(studentIds[i]).getLastName();
+                keywords[i] = lastName.substring(0, Math.min(lastName.length(), 5));
+            }
+        }
+    }
+
+    @Override
+    public int studentCount() {
+        return studentIds.length;
+    }
+
+    @Override
+    public String studentId(int index) {
+        return studentIds[index];
+    }
+
+    @Override
+    public String searchKeyword(int index) {
+        return keywords[index % keywords.length];
+    }
+
+    @Override
+    public int attendanceDays() {
+        return schoolDays.length;
+    }
+
+    @Override
+    public Object addGrade(String studentId, int marks) {
+        return school.addGrade(studentId, "Mathematics", "Quiz", marks, 100, SEMESTER, ACADEMIC_YEAR);
+    }
+
+    @Override
+    public Object getStudentGrades(String studentId) {
+        return school.getStudentGrades(studentId);
+    }
+
+    @Override
+    public double calculateStudentGPA(String studentId) {
+        return school.calculateStudentGPA(studentId, SEMESTER, ACADEMIC_YEAR);
+    }
+
+    @Override
+    public double calculateAttendancePercentage(String studentId) {
+        return school.calculateAttendancePercentage(studentId, schoolDays[0], schoolDays[schoolDays.length - 1]);
+    }
+
+    @Override
+    public Object getAttendanceByDate(int day) {
+        return school.getAttendanceByDate(schoolDays[day]);
+    }
+
+    @Override
+    public Object searchStudents(String keyword) {
+        return school.searchStudents(keyword);
+    }
+
+    @Override
+    public Object getStudentsWithOutstandingFees() {
+        return school.getStudentsWithOutstandingFees();
+    }
+
+    @Override
+    public void save() {
+        DataPersistence.saveData(school, loginSystem);
+    }
+
+    @Override
+    public Object load() {
+        SchoolManagementSystem loaded = new SchoolManagementSystem();
+        DataPersistence.loadData(loaded, new LoginSystem());
+        return loaded;
+    }
+
+    @Override
+    public void exportText(String dir) {
+        try {
+            DataPersistence.exportTextData(school, loginSystem, dir);
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Adding grades grows the school, so every iteration starts from a freshly populated
+// roster with no grades yet
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class AddGradeBenchmark {
+    private static final int STRIDE = 7919;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int students;
+
+    private SchoolFixture school;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void populate() {
+        school = SchoolFixture.create();
+        school.populate(students, 0, 0, 42);
+    }
+
+    @Benchmark
+    public Object addGrade() {
+        next = (next + STRIDE) % students;
+        return school.addGrade(school.studentId(next), 40 + (next & 63));
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Full save and load of a populated school. Each operation takes long enough to be
+// timed on its own. Data is written under target/, never to the application's school_data.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class PersistenceBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int students;
+
+    @Param({"5"})
+    public int subjectsPerStudent;
+
+    @Param({"10"})
+    public int attendanceDays;
+
+    private SchoolFixture school;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        // Set here rather than in jvmArgs, which -jvmArgsAppend on the command line replaces
+        if (System.getProperty("school.dataDir") == null) {
+            System.setProperty("school.dataDir", "target/benchmark-data");
+        }
+        school = SchoolFixture.create();
+        school.populate(students, subjectsPerStudent, attendanceDays, 42);
+        school.save(); // something for load() to read
+    }
+
+    @Benchmark
+    public void save() {
+        school.save();
+    }
+
+    @Benchmark
+    public Object load() {
+        return school.load();
+    }
+}
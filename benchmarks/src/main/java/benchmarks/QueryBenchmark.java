@@ -0,0 +1,72 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Read paths over a populated school. Each call picks the next student in a fixed
+// stride through the roster, so lookups are not served from one hot entry.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class QueryBenchmark {
+    private static final int STRIDE = 7919; // prime, so the walk visits every student
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int students;
+
+    @Param({"5"})
+    public int subjectsPerStudent;
+
+    @Param({"10"})
+    public int attendanceDays;
+
+    private SchoolFixture school;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        school = SchoolFixture.create();
+        school.populate(students, subjectsPerStudent, attendanceDays, 42);
+    }
+
+    private String nextStudent() {
+        next = (next + STRIDE) % students;
+        return school.studentId(next);
+    }
+
+    @Benchmark
+    public Object getStudentGrades() {
+        return school.getStudentGrades(nextStudent());
+    }
+
+    @Benchmark
+    public double calculateStudentGPA() {
+        return school.calculateStudentGPA(nextStudent());
+    }
+
+    @Benchmark
+    public double calculateAttendancePercentage() {
+        return school.calculateAttendancePercentage(nextStudent());
+    }
+
+    @Benchmark
+    public Object getAttendanceByDate() {
+        next++;
+        return school.getAttendanceByDate(next % attendanceDays);
+    }
+
+    @Benchmark
+    public Object searchStudents() {
+        next++;
+        return school.searchStudents(school.searchKeyword(next));
+    }
+
+    @Benchmark
+    public Object getStudentsWithOutstandingFees() {
+        return school.getStudentsWithOutstandingFees();
+    }
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+// The benchmarked operations of one populated school. JMH cannot run benchmarks in
+// the default package, and named packages cannot refer to the application's classes,
+// so the benchmarks go through this interface; BenchmarkFixture implements it in the
+// default package and is found by name once per trial.
+public interface SchoolFixture {
+
+    static SchoolFixture create() {
+        try {
+            return (SchoolFixture) Class.forName("BenchmarkFixture").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("BenchmarkFixture is not on the class path", e);
+        }
+    }
+
+    // Adds students, each taking subjectsPerStudent subjects with one exam per subject
+    // per semester, and attendanceDays school days of attendance. The same seed gives
+    // the same school.
+    void populate(int students, int subjectsPerStudent, int attendanceDays, long seed);
+
+    int studentCount();
+
+    String studentId(int index);
+
+    // A substring of some student's name
+    String searchKeyword(int index);
+
+    int attendanceDays();
+
+    Object addGrade(String studentId, int marks);
+
+    Object getStudentGrades(String studentId);
+
+    double calculateStudentGPA(String studentId);
+
+    double calculateAttendancePercentage(String studentId);
+
+    Object getAttendanceByDate(int day);
+
+    Object searchStudents(String keyword);
+
+    Object getStudentsWithOutstandingFees();
+
+    // Full save to the directory named by the school.dataDir system property
+    void save();
+
+    // Loads that directory into a new school and returns it
+    Object load();
+
+    // Writes every data set as pipe-delimited text files into dir
+    void exportText(String dir);
+}
@@ -0,0 +1,37 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Export of every data set as pipe-delimited text, dominated by attendance: one row
+// per student per attendance day. Written under target/, never to school_data.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class TextExportBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    @Param({"5"})
+    public int subjectsPerStudent;
+
+    @Param({"10", "180"})
+    public int attendanceDays;
+
+    private SchoolFixture school;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        school = SchoolFixture.create();
+        school.populate(students, subjectsPerStudent, attendanceDays, 42);
+    }
+
+    @Benchmark
+    public void exportText() {
+        school.exportText("target/benchmark-export");
+    }
+}
@@ -1,9 +1,53 @@
 import javax.swing.SwingUtilities;
 
 public class App {
-    public static void main(String[] args) {
+    // Usage: java App                 desktop application
+    //        java App --server [port] headless JSON API (default port 8080)
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : SchoolApiServer.DEFAULT_PORT;
+            startServer(port);
+            return;
+        }
+
+        // Start loading before Swing starts up; the login dialog only waits for the users
+        SchoolManagementSystem school = new SchoolManagementSystem();
+        LoginSystem loginSystem = new LoginSystem();
+        startMetrics(school, loginSystem);
+        StartupLoader loader = new StartupLoader(school, loginSystem);
+        loader.execute();
+
         SwingUtilities.invokeLater(() -> {
-            new SchoolManagementGUI().setVisible(true);
+            new SchoolManagementGUI(school, loginSystem, loader).setVisible(true);
         });
     }
-}
\ No newline at end of file
+
+    private static void startServer(int port) throws Exception {
+        SchoolManagementSystem school = new SchoolManagementSystem();
+        LoginSystem loginSystem = new LoginSystem();
+        startMetrics(school, loginSystem);
+        DataPersistence.loadData(school, loginSystem);
+        DataPersistence.openJournal(school, loginSystem);
+        AutosaveService autosave = new AutosaveService(school, loginSystem);
+        autosave.start(AutosaveService.configuredIntervalSeconds());
+
+        SchoolApiServer server = new SchoolApiServer(school, loginSystem, port);
+        server.start();
+
+        // Ctrl+C: finish running requests, then save what changed
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(5);
+            if (!autosave.shutdown()) {
+                DataPersistence.saveData(school, loginSystem);
+            }
+            DataPersistence.closeJournal();
+        }, "server-shutdown"));
+    }
+
+    // Metrics are readable over JMX, and printed periodically if configured
+    private static void startMetrics(SchoolManagementSystem school, LoginSystem loginSystem) {
+        Metrics.watch(school, loginSystem);
+        Metrics.registerMBean();
+        Metrics.startConfiguredDump();
+    }
+}
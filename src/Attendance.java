@@ -7,6 +7,12 @@ public class Attendance {
     private LocalDate date;
     private String status; // Present, Absent, Late, Excused
     private String remarks;
+    private StatusListener statusListener;
+    
+    // Notified after the status changes, with the status before the change
+    public interface StatusListener {
+        void statusChanged(Attendance attendance, String oldStatus);
+    }
     
     public Attendance(String attendanceId, String studentId, LocalDate date, String status, String remarks) {
         this.attendanceId = attendanceId;
@@ -24,9 +30,19 @@ public class Attendance {
     public String getRemarks() { return remarks; }
     
     // Setters
-    public void setStatus(String status) { this.status = status; }
+    public void setStatus(String status) { 
+        String oldStatus = this.status;
+        this.status = status;
+        if (statusListener != null) {
+            statusListener.statusChanged(this, oldStatus);
+        }
+    }
     public void setRemarks(String remarks) { this.remarks = remarks; }
     
+    void setStatusListener(StatusListener listener) {
+        this.statusListener = listener;
+    }
+    
     public String getFormattedDate() {
         return date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
     }
@@ -0,0 +1,130 @@
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Day-indexed attendance counts for one student, with cumulative sums per month
+// so the attendance percentage for any date range costs two month lookups plus at
+// most two partial months per year touched.
+public class AttendanceCalendar {
+    private final NavigableMap<Integer, YearCounts> years = new TreeMap<>();
+    
+    public static boolean isAttended(String status) {
+        return status.equals("Present") || status.equals("Late");
+    }
+    
+    public void record(LocalDate date, String status) {
+        years.computeIfAbsent(date.getYear(), YearCounts::new)
+             .add(date, isAttended(status) ? 1 : 0, 1);
+    }
+    
+    public void statusChanged(LocalDate date, String oldStatus, String newStatus) {
+        int delta = (isAttended(newStatus) ? 1 : 0) - (isAttended(oldStatus) ? 1 : 0);
+        YearCounts counts = years.get(date.getYear());
+        if (counts != null && delta != 0) {
+            counts.add(date, delta, 0);
+        }
+    }
+    
+    // Percentage of records between startDate and endDate (inclusive) marked Present or Late
+    public double percentage(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) return 0.0;
+        
+        int totalDays = 0;
+        int presentDays = 0;
+        for (Map.Entry<Integer, YearCounts> entry :
+                years.subMap(startDate.getYear(), true, endDate.getYear(), true).entrySet()) {
+            int year = entry.getKey();
+            YearCounts counts = entry.getValue();
+            int from = year == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+            int to = year == endDate.getYear() ? endDate.getDayOfYear() : counts.length();
+            totalDays += counts.sumBetween(from, to, false);
+            presentDays += counts.sumBetween(from, to, true);
+        }
+        
+        return totalDays > 0 ? (double) presentDays / totalDays * 100 : 0.0;
+    }
+    
+    private static class YearCounts {
+        private static final int MAX_PER_DAY = 0xFF;
+        // Day index of the first of each month, then the year length
+        private static final int[] MONTH_START = monthStarts(2023);
+        private static final int[] LEAP_MONTH_START = monthStarts(2024);
+        
+        // One code per day of the year: records that day in the low byte, attended
+        // ones in the high byte. A student has one record a day, so a byte each is
+        // ample, and a year takes 732 bytes plus two small month tables.
+        private final short[] days;
+        private final int[] monthStart;
+        // Cumulative sums up to the start of each month; rebuilt lazily after writes
+        private final int[] totalBefore = new int[13];
+        private final int[] attendedBefore = new int[13];
+        private boolean dirty;
+        
+        YearCounts(int year) {
+            monthStart = Year.isLeap(year) ? LEAP_MONTH_START : MONTH_START;
+            days = new short[monthStart[12]];
+        }
+        
+        private static int[] monthStarts(int year) {
+            int[] starts = new int[13];
+            for (int month = 1; month <= 12; month++) {
+                starts[month - 1] = LocalDate.of(year, month, 1).getDayOfYear() - 1;
+            }
+            starts[12] = Year.of(year).length();
+            return starts;
+        }
+        
+        int length() {
+            return days.length;
+        }
+        
+        synchronized void add(LocalDate date, int attendedDelta, int totalDelta) {
+            int dayIndex = date.getDayOfYear() - 1;
+            int total = (days[dayIndex] & MAX_PER_DAY) + totalDelta;
+            int attended = ((days[dayIndex] >>> 8) & MAX_PER_DAY) + attendedDelta;
+            if (total > MAX_PER_DAY) {
+                throw new IllegalStateException("More than " + MAX_PER_DAY + " attendance records on " + date);
+            }
+            days[dayIndex] = (short) (attended << 8 | total);
+            dirty = true;
+        }
+        
+        // Records (or attended records) on days [from, to). Synchronized: concurrent
+        // readers may trigger the lazy rebuild.
+        synchronized int sumBetween(int from, int to, boolean attended) {
+            rebuildIfDirty();
+            int[] before = attended ? attendedBefore : totalBefore;
+            int fromMonth = monthOf(from);
+            int toMonth = monthOf(to);
+            return before[toMonth] + sumDays(monthStart[toMonth], to, attended)
+                 - before[fromMonth] - sumDays(monthStart[fromMonth], from, attended);
+        }
+        
+        // Month containing dayIndex; the year length maps to 12, past the last month
+        private int monthOf(int dayIndex) {
+            int month = 0;
+            while (month < 12 && monthStart[month + 1] <= dayIndex) month++;
+            return month;
+        }
+        
+        private int sumDays(int from, int to, boolean attended) {
+            int shift = attended ? 8 : 0;
+            int sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += (days[i] >>> shift) & MAX_PER_DAY;
+            }
+            return sum;
+        }
+        
+        private void rebuildIfDirty() {
+            if (!dirty) return;
+            for (int month = 0; month < 12; month++) {
+                totalBefore[month + 1] = totalBefore[month] + sumDays(monthStart[month], monthStart[month + 1], false);
+                attendedBefore[month + 1] = attendedBefore[month] + sumDays(monthStart[month], monthStart[month + 1], true);
+            }
+            dirty = false;
+        }
+    }
+}
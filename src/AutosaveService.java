@@ -0,0 +1,127 @@
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Periodically writes the data sets that changed since the last save, off the UI thread.
+// Changed data is copied by the caller of flush() (the school and user stores are safe
+// to read from any thread) and the copies are written in capture order by a single
+// background thread.
+public class AutosaveService implements DataChangeListener {
+    public static final long DEFAULT_INTERVAL_SECONDS = 30;
+
+    private final SchoolManagementSystem school;
+    private final LoginSystem loginSystem;
+    private final Set<DataSet> dirty = EnumSet.noneOf(DataSet.class); // guarded by itself
+    private final ScheduledExecutorService writer;
+    private volatile boolean stopped;
+
+    public AutosaveService(SchoolManagementSystem school, LoginSystem loginSystem) {
+        this.school = school;
+        this.loginSystem = loginSystem;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        school.addChangeListener(this);
+        loginSystem.addChangeListener(this);
+    }
+
+    // Interval comes from the school.autosaveSeconds system property when set
+    public static long configuredIntervalSeconds() {
+        return Long.getLong("school.autosaveSeconds", DEFAULT_INTERVAL_SECONDS);
+    }
+
+    public void start(long intervalSeconds) {
+        // flush() only queues the write, which then runs after this tick on the same thread
+        writer.scheduleWithFixedDelay(this::flush, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void dataChanged(DataSet dataSet) {
+        synchronized (dirty) {
+            dirty.add(dataSet);
+        }
+    }
+
+    // For data added before this service was listening, e.g. generated at startup
+    public void markAllDirty() {
+        synchronized (dirty) {
+            dirty.addAll(EnumSet.allOf(DataSet.class));
+        }
+    }
+
+    public boolean hasUnsavedChanges() {
+        synchronized (dirty) {
+            return !dirty.isEmpty();
+        }
+    }
+
+    // Copy every dirty data set and queue it for writing. Synchronized so copies are
+    // queued in the order they were taken.
+    public synchronized Future<?> flush() {
+        if (stopped || !hasUnsavedChanges()) return null;
+
+        // The journal mark comes first: the save drops records before it, and those
+        // changes marked their data set dirty before being journaled
+        DataPersistence.JournalMark mark;
+        try {
+            mark = DataPersistence.markJournal();
+        } catch (Exception e) {
+            System.err.println("Error autosaving: " + e.getMessage());
+            return null;
+        }
+
+        Set<DataSet> dataSets;
+        synchronized (dirty) {
+            if (dirty.isEmpty()) return null;
+            dataSets = EnumSet.copyOf(dirty);
+            dirty.clear();
+        }
+
+        try {
+            DataPersistence.SaveTask task = DataPersistence.prepareSave(school, loginSystem, dataSets, mark);
+            return writer.submit(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    saveFailed(dataSets, e);
+                }
+            });
+        } catch (Exception e) {
+            saveFailed(dataSets, e);
+            return null;
+        }
+    }
+
+    private void saveFailed(Set<DataSet> dataSets, Exception e) {
+        System.err.println("Error autosaving " + dataSets + ": " + e.getMessage());
+        synchronized (dirty) {
+            dirty.addAll(dataSets);
+        }
+    }
+
+    // Write whatever is still dirty and stop. Returns true if everything changed has been saved.
+    public boolean shutdown() {
+        Future<?> last = flush();
+        stopped = true;
+        school.removeChangeListener(this);
+        loginSystem.removeChangeListener(this);
+
+        // Pending periodic ticks are dropped; queued writes still run in order
+        writer.shutdown();
+        try {
+            if (last != null) last.get();
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error autosaving: " + e.getCause());
+        }
+        return !hasUnsavedChanges();
+    }
+}
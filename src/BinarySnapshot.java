@@ -0,0 +1,408 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Compact binary snapshot of the school data, one file per entity set.
+//
+// File layout: magic, format version, row count, then the encoded rows, streamed
+// straight to disk. Repetitive columns (subjects, statuses, student IDs on grade
+// rows, ...) are written as dictionary indexes, unique columns as strings, dates
+// as epoch-day ints and money as long cents. Strings are a varint UTF-8 byte count
+// and the bytes. The dictionary is built as the rows are written: an index equal to
+// the number of entries so far adds a new entry, whose string follows inline.
+public class BinarySnapshot {
+    private static final int MAGIC = 0x534D5342; // "SMSB"
+    private static final int VERSION = 2;
+    private static final LatencyHistogram APPLY_TIMER = Metrics.timer("persistence.load.snapshotApply");
+
+    static final String STUDENTS_FILE = "students.bin";
+    static final String TEACHERS_FILE = "teachers.bin";
+    static final String GRADES_FILE = "grades.bin";
+    static final String ATTENDANCE_FILE = "attendance.bin";
+    static final String USERS_FILE = "users.bin";
+
+    public static boolean exists(String dir) {
+        return new File(dir, STUDENTS_FILE).exists() || new File(dir, USERS_FILE).exists();
+    }
+
+    public static void loadUsers(LoginSystem loginSystem, String dir) throws IOException {
+        for (User user : loadUsers(new File(dir, USERS_FILE))) loginSystem.addExistingUser(user);
+    }
+
+    // Decodes the school's entity files in parallel and bulk-adds each to school as
+    // soon as it is decoded. The four entity sets have separate collections and
+    // locks, so their adds run in parallel too.
+    public static void loadSchool(SchoolManagementSystem school, String dir) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.min(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<?>> loads = new ArrayList<>();
+            loads.add(pool.submit(() -> apply(loadStudents(new File(dir, STUDENTS_FILE)), school::addExistingStudents)));
+            loads.add(pool.submit(() -> apply(loadTeachers(new File(dir, TEACHERS_FILE)), school::addExistingTeachers)));
+            loads.add(pool.submit(() -> apply(loadGrades(new File(dir, GRADES_FILE)), school::addExistingGrades)));
+            loads.add(pool.submit(() -> apply(loadAttendance(new File(dir, ATTENDANCE_FILE)), school::addExistingAttendance)));
+            for (Future<?> load : loads) await(load);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static <T> Void apply(List<T> rows, java.util.function.Consumer<List<T>> addAll) {
+        long start = System.nanoTime();
+        addAll.accept(rows);
+        APPLY_TIMER.recordSince(start);
+        return null;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading snapshot");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Corrupt snapshot: " + cause, cause);
+        }
+    }
+
+    static void saveStudents(List<Student> students, File file) throws IOException {
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (Encoder out = new Encoder(file, students.size())) {
+            for (Student student : students) {
+                out.writeString(student.getStudentId());
+                out.writeString(student.getFirstName());
+                out.writeString(student.getLastName());
+                out.writeDate(student.getDateOfBirth());
+                out.writeShared(student.getGender());
+                out.writeShared(student.getGrade());
+                out.writeString(student.getParentName());
+                out.writeString(student.getParentPhone());
+                out.writeString(student.getParentEmail());
+                out.writeString(student.getAddress());
+                out.writeShared(student.getStatus());
+                out.writeMoney(student.getFeesTotal());
+                out.writeMoney(student.getFeesPaid());
+            }
+            out.commit();
+        }
+        DataPersistence.recordFileMetrics("save", file, students.size(), event);
+    }
+
+    static List<Student> loadStudents(File file) throws IOException {
+        if (!file.exists()) return new ArrayList<>();
+
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (Decoder in = new Decoder(file)) {
+            List<Student> students = new ArrayList<>(in.getRowCount());
+            for (int i = 0; i < in.getRowCount(); i++) {
+                Student student = new Student(in.readString(), in.readString(), in.readString(),
+                        in.readDate(), in.readShared(), in.readShared(), in.readString(),
+                        in.readString(), in.readString(), in.readString());
+                student.setStatus(in.readShared());
+                student.setFeesTotal(in.readMoney());
+                student.addFeePayment(in.readMoney());
+                students.add(student);
+            }
+            DataPersistence.recordFileMetrics("load", file, students.size(), event);
+            return students;
+        }
+    }
+
+    static void saveTeachers(List<Teacher> teachers, File file) throws IOException {
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (Encoder out = new Encoder(file, teachers.size())) {
+            for (Teacher teacher : teachers) {
+                out.writeString(teacher.getTeacherId());
+                out.writeString(teacher.getFirstName());
+                out.writeString(teacher.getLastName());
+                out.writeString(teacher.getEmail());
+                out.writeString(teacher.getPhone());
+                out.writeShared(teacher.getSubject());
+                out.writeShared(teacher.getQualification());
+                out.writeMoney(teacher.getSalary());
+                out.writeString(teacher.getAddress());
+                out.writeShared(teacher.getStatus());
+            }
+            out.commit();
+        }
+        DataPersistence.recordFileMetrics("save", file, teachers.size(), event);
+    }
+
+    static List<Teacher> loadTeachers(File file) throws IOException {
+        if (!file.exists()) return new ArrayList<>();
+
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (Decoder in = new Decoder(file)) {
+            List<Teacher> teachers = new ArrayList<>(in.getRowCount());
+            for (int i = 0; i < in.getRowCount(); i++) {
+                Teacher teacher = new Teacher(in.readString(), in.readString(), in.readString(),
+                        in.readString(), in.readString(), in.readShared(), in.readShared(),
+                        in.readMoney(), in.readString());
+                teacher.setStatus(in.readShared());
+                teachers.add(teacher);
+            }
+            DataPersistence.recordFileMetrics("load", file, teachers.size(), event);
+            return teachers;
+        }
+    }
+
+    static void saveGrades(List<Grade> grades, File file) throws IOException {
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (Encoder out = new Encoder(file, grades.size())) {
+            for (Grade grade : grades) {
+                out.writeString(grade.getGradeId());
+                out.writeShared(grade.getStudentId());
+                out.writeShared(grade.getSubject());
+                out.writeShared(grade.getExamType());
+                out.writeDouble(grade.getMarks());
+                out.writeDouble(grade.getTotalMarks());
+                out.writeShared(grade.getSemester());
+                out.writeShared(grade.getAcademicYear());
+            }
+            out.commit();
+        }
+        DataPersistence.recordFileMetrics("save", file, grades.size(), event);
+    }
+
+    static List<Grade> loadGrades(File file) throws IOException {
+        if (!file.exists()) return new ArrayList<>();
+
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (Decoder in = new Decoder(file)) {
+            List<Grade> grades = new ArrayList<>(in.getRowCount());
+            for (int i = 0; i < in.getRowCount(); i++) {
+                grades.add(new Grade(in.readString(), in.readShared(), in.readShared(), in.readShared(),
+                        in.readDouble(), in.readDouble(), in.readShared(), in.readShared()));
+            }
+            DataPersistence.recordFileMetrics("load", file, grades.size(), event);
+            return grades;
+        }
+    }
+
+    static void saveAttendance(List<Attendance> records, File file) throws IOException {
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (Encoder out = new Encoder(file, records.size())) {
+            for (Attendance attendance : records) {
+                out.writeString(attendance.getAttendanceId());
+                out.writeShared(attendance.getStudentId());
+                out.writeDate(attendance.getDate());
+                out.writeShared(attendance.getStatus());
+                out.writeString(attendance.getRemarks()); // mostly empty, else mostly unique
+            }
+            out.commit();
+        }
+        DataPersistence.recordFileMetrics("save", file, records.size(), event);
+    }
+
+    static List<Attendance> loadAttendance(File file) throws IOException {
+        if (!file.exists()) return new ArrayList<>();
+
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (Decoder in = new Decoder(file)) {
+            List<Attendance> records = new ArrayList<>(in.getRowCount());
+            for (int i = 0; i < in.getRowCount(); i++) {
+                records.add(new Attendance(in.readString(), in.readShared(), in.readDate(),
+                        in.readShared(), in.readString()));
+            }
+            DataPersistence.recordFileMetrics("load", file, records.size(), event);
+            return records;
+        }
+    }
+
+    static void saveUsers(List<User> users, File file) throws IOException {
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (Encoder out = new Encoder(file, users.size())) {
+            for (User user : users) {
+                out.writeString(user.getUserId());
+                out.writeString(user.getUsername());
+                out.writeString(user.getPassword());
+                out.writeShared(user.getRole());
+                out.writeString(user.getFullName());
+                out.writeString(user.getEmail());
+                out.writeShared(user.getAssociatedId());
+                out.writeBoolean(user.isActive());
+            }
+            out.commit();
+        }
+        DataPersistence.recordFileMetrics("save", file, users.size(), event);
+    }
+
+    static List<User> loadUsers(File file) throws IOException {
+        if (!file.exists()) return new ArrayList<>();
+
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (Decoder in = new Decoder(file)) {
+            List<User> users = new ArrayList<>(in.getRowCount());
+            for (int i = 0; i < in.getRowCount(); i++) {
+                User user = new User(in.readString(), in.readString(), in.readString(), in.readShared(),
+                        in.readString(), in.readString(), in.readShared());
+                user.setActive(in.readBoolean());
+                users.add(user);
+            }
+            DataPersistence.recordFileMetrics("load", file, users.size(), event);
+            return users;
+        }
+    }
+
+    // Writes rows straight to a temporary file that then replaces the target
+    // atomically, so a crash mid-save never leaves a half-written snapshot file.
+    // Call commit() after the last row; closing without it discards the file.
+    private static class Encoder implements Closeable {
+        private final File file;
+        private final File temp;
+        private final FileOutputStream fileOut;
+        private final DataOutputStream out;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private boolean committed;
+
+        Encoder(File file, int rowCount) throws IOException {
+            this.file = file;
+            this.temp = new File(file.getPath() + ".tmp");
+            fileOut = new FileOutputStream(temp);
+            out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rowCount);
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        void writeShared(String value) throws IOException {
+            String key = value != null ? value : "";
+            Integer index = dictionary.get(key);
+            if (index != null) {
+                writeVarInt(index);
+                return;
+            }
+            // First use: the next free index, then the string itself
+            writeVarInt(dictionary.size());
+            dictionary.put(key, dictionary.size());
+            writeString(key);
+        }
+
+        void writeDate(LocalDate date) throws IOException {
+            out.writeInt((int) date.toEpochDay());
+        }
+
+        void writeMoney(double amount) throws IOException {
+            out.writeLong(Math.round(amount * 100));
+        }
+
+        void writeDouble(double value) throws IOException {
+            out.writeDouble(value);
+        }
+
+        void writeBoolean(boolean value) throws IOException {
+            out.writeBoolean(value);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+
+        void commit() throws IOException {
+            out.flush();
+            fileOut.getFD().sync();
+            out.close();
+            Files.move(temp.toPath(), file.toPath(),
+                       StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) return;
+            out.close();
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    private static class Decoder implements Closeable {
+        private final DataInputStream in;
+        private final int rowCount;
+        private final List<String> dictionary = new ArrayList<>();
+
+        Decoder(File file) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+            try {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException(file + " is not a school data snapshot");
+                }
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new IOException(file + " has unsupported snapshot version " + version);
+                }
+                rowCount = in.readInt();
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        int getRowCount() { return rowCount; }
+
+        String readString() throws IOException {
+            byte[] bytes = new byte[readVarInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        String readShared() throws IOException {
+            int index = readVarInt();
+            if (index < dictionary.size()) return dictionary.get(index);
+            if (index > dictionary.size()) {
+                throw new IOException("Corrupt snapshot: dictionary index " + index + " of " + dictionary.size());
+            }
+            String value = readString();
+            dictionary.add(value);
+            return value;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        LocalDate readDate() throws IOException {
+            return LocalDate.ofEpochDay(in.readInt());
+        }
+
+        double readMoney() throws IOException {
+            return in.readLong() / 100.0;
+        }
+
+        double readDouble() throws IOException {
+            return in.readDouble();
+        }
+
+        boolean readBoolean() throws IOException {
+            return in.readBoolean();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -1,13 +1,15 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 public class DashboardPanel extends JPanel {
     private SchoolManagementSystem school;
     private LoginSystem loginSystem;
     private JTable gradeTable, attendanceTable, feeTable;
-    private DefaultTableModel gradeTableModel, attendanceTableModel, feeTableModel;
+    private EntityTableModel<Grade> gradeTableModel;
+    private EntityTableModel<Attendance> attendanceTableModel;
+    private EntityTableModel<Student> feeTableModel;
     private JLabel welcomeLabel, gpaLabel, attendanceLabel, feeStatusLabel;
     
     public DashboardPanel(SchoolManagementSystem school, LoginSystem loginSystem) {
@@ -58,14 +60,16 @@ public class DashboardPanel extends JPanel {
     private JPanel createGradesPanel() {
         JPanel panel = new JPanel(new BorderLayout());
         
-        String[] columns = {"Subject", "Exam Type", "Marks", "Total", "Grade", "Percentage", "Semester", "Year"};
-        gradeTableModel = new DefaultTableModel(columns, 0);
-        gradeTable = new JTable(gradeTableModel) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        gradeTableModel = new EntityTableModel<Grade>()
+                .addColumn("Subject", Grade::getSubject)
+                .addColumn("Exam Type", Grade::getExamType)
+                .addColumn("Marks", Grade::getMarks)
+                .addColumn("Total", Grade::getTotalMarks)
+                .addColumn("Grade", Grade::getGrade)
+                .addColumn("Percentage", grade -> String.format("%.1f%%", grade.getPercentage()))
+                .addColumn("Semester", Grade::getSemester)
+                .addColumn("Year", Grade::getAcademicYear);
+        gradeTable = new JTable(gradeTableModel);
         
         panel.add(new JScrollPane(gradeTable), BorderLayout.CENTER);
         
@@ -75,14 +79,11 @@ public class DashboardPanel extends JPanel {
     private JPanel createAttendancePanel() {
         JPanel panel = new JPanel(new BorderLayout());
         
-        String[] columns = {"Date", "Status", "Remarks"};
-        attendanceTableModel = new DefaultTableModel(columns, 0);
-        attendanceTable = new JTable(attendanceTableModel) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        attendanceTableModel = new EntityTableModel<Attendance>()
+                .addColumn("Date", Attendance::getFormattedDate)
+                .addColumn("Status", Attendance::getStatus)
+                .addColumn("Remarks", Attendance::getRemarks);
+        attendanceTable = new JTable(attendanceTableModel);
         
         panel.add(new JScrollPane(attendanceTable), BorderLayout.CENTER);
         
@@ -92,14 +93,13 @@ public class DashboardPanel extends JPanel {
     private JPanel createFeePanel() {
         JPanel panel = new JPanel(new BorderLayout());
         
-        String[] columns = {"Description", "Total Fees", "Paid Amount", "Outstanding", "Status"};
-        feeTableModel = new DefaultTableModel(columns, 0);
-        feeTable = new JTable(feeTableModel) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        feeTableModel = new EntityTableModel<Student>()
+                .addColumn("Description", student -> "Academic Year 2024")
+                .addColumn("Total Fees", student -> String.format("$%.2f", student.getFeesTotal()))
+                .addColumn("Paid Amount", student -> String.format("$%.2f", student.getFeesPaid()))
+                .addColumn("Outstanding", student -> String.format("$%.2f", student.getOutstandingFees()))
+                .addColumn("Status", student -> student.getOutstandingFees() > 0 ? "Outstanding" : "Paid");
+        feeTable = new JTable(feeTableModel);
         
         panel.add(new JScrollPane(feeTable), BorderLayout.CENTER);
         
@@ -129,57 +129,22 @@ public class DashboardPanel extends JPanel {
     
     private void loadGrades(String studentId) {
         if (gradeTableModel != null) {
-            gradeTableModel.setRowCount(0);
-            List<Grade> grades = school.getStudentGrades(studentId);
-            
-            for (Grade grade : grades) {
-                Object[] row = {
-                    grade.getSubject(),
-                    grade.getExamType(),
-                    grade.getMarks(),
-                    grade.getTotalMarks(),
-                    grade.getGrade(),
-                    String.format("%.1f%%", grade.getPercentage()),
-                    grade.getSemester(),
-                    grade.getAcademicYear()
-                };
-                gradeTableModel.addRow(row);
-            }
+            gradeTableModel.setRows(school.getStudentGrades(studentId));
         }
     }
     
     private void loadAttendance(String studentId) {
         if (attendanceTableModel != null) {
-            attendanceTableModel.setRowCount(0);
-            List<Attendance> attendanceList = school.getStudentAttendance(studentId);
-            
-            for (Attendance attendance : attendanceList) {
-                Object[] row = {
-                    attendance.getFormattedDate(),
-                    attendance.getStatus(),
-                    attendance.getRemarks()
-                };
-                attendanceTableModel.addRow(row);
-            }
+            attendanceTableModel.setRows(school.getStudentAttendance(studentId));
         }
     }
     
     private void loadFeeInfo(String studentId) {
         if (feeTableModel != null) {
-            feeTableModel.setRowCount(0);
             Student student = school.getStudent(studentId);
-            
-            if (student != null) {
-                String status = student.getOutstandingFees() > 0 ? "Outstanding" : "Paid";
-                Object[] row = {
-                    "Academic Year 2024",
-                    String.format("$%.2f", student.getFeesTotal()),
-                    String.format("$%.2f", student.getFeesPaid()),
-                    String.format("$%.2f", student.getOutstandingFees()),
-                    status
-                };
-                feeTableModel.addRow(row);
-            }
+            List<Student> rows = new ArrayList<>();
+            if (student != null) rows.add(student);
+            feeTableModel.setRows(rows);
         }
     }
     
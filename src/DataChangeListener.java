@@ -0,0 +1,4 @@
+// Notified after a change to one of the persisted data sets
+public interface DataChangeListener {
+    void dataChanged(DataSet dataSet);
+}
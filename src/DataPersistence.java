@@ -1,65 +1,204 @@
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DataPersistence {
-    private static final String DATA_DIR = "school_data";
-    private static final String STUDENTS_FILE = DATA_DIR + "/students.txt";
-    private static final String TEACHERS_FILE = DATA_DIR + "/teachers.txt";
-    private static final String GRADES_FILE = DATA_DIR + "/grades.txt";
-    private static final String ATTENDANCE_FILE = DATA_DIR + "/attendance.txt";
-    private static final String USERS_FILE = DATA_DIR + "/users.txt";
+    // Pipe-delimited text files, used for import/export and for data saved by older versions
+    static final String STUDENTS_FILE = "students.txt";
+    static final String TEACHERS_FILE = "teachers.txt";
+    static final String GRADES_FILE = "grades.txt";
+    static final String ATTENDANCE_FILE = "attendance.txt";
+    static final String USERS_FILE = "users.txt";
+    private static final String ROLES_FILE = "roles.txt"; // optional custom roles, see RolePermissions
+    private static final String JOURNAL_FILE = "journal.log";
+    
+    // Phase timings; each data file also gets "persistence.<load|save>.<file name>"
+    // with .bytes and .rows counters, see recordFileMetrics
+    private static final LatencyHistogram SAVE_TIMER = Metrics.timer("persistence.save");
+    private static final LatencyHistogram LOAD_USERS_TIMER = Metrics.timer("persistence.loadUserData");
+    private static final LatencyHistogram LOAD_SCHOOL_TIMER = Metrics.timer("persistence.loadSchoolData");
+    private static final LatencyHistogram REPLAY_TIMER = Metrics.timer("persistence.journal.replay");
+    private static final LongAdder REPLAYED = Metrics.counter("persistence.journal.replayed");
+    
+    // Read on every call rather than once, so -Dschool.dataDir may be set after this
+    // class is loaded (benchmarks and tests point it at their own directory)
+    static String dataDir() {
+        return System.getProperty("school.dataDir", "school_data");
+    }
+    
+    // Journal attached to the running system, if any; truncated after every full save
+    private static Journal journal;
+    private static SchoolManagementSystem journaledSchool; // what journal is attached to
+    private static LoginSystem journaledLogins;
+    
+    // Writes prepared data to disk; safe to run off the thread that owns the data
+    public interface SaveTask {
+        void run() throws IOException;
+    }
     
     public static void saveData(SchoolManagementSystem school, LoginSystem loginSystem) {
         try {
+            prepareSave(school, loginSystem, EnumSet.allOf(DataSet.class)).run();
+            System.out.println("Data saved successfully!");
+            
+        } catch (Exception e) {
+            System.err.println("Error saving data: " + e.getMessage());
+        }
+    }
+    
+    // A position in the attached journal; a save made after taking it discards the
+    // journal records before it
+    public static final class JournalMark {
+        private final Journal journal;
+        private final long position;
+        
+        private JournalMark(Journal journal, long position) {
+            this.journal = journal;
+            this.position = position;
+        }
+    }
+    
+    // Take this before deciding which data sets to save. Changes mark their data set
+    // dirty before journaling, so every record before the mark belongs to a data set
+    // that was already dirty when the mark was taken.
+    // A failed journal is left as it is for inspection and never checkpointed; the
+    // snapshot is still written, so saving remains the way to make changes durable.
+    public static JournalMark markJournal() throws IOException {
+        Journal currentJournal = journal;
+        if (currentJournal == null || currentJournal.isFailed()) return new JournalMark(null, 0);
+        return new JournalMark(currentJournal, currentJournal.mark());
+    }
+    
+    // Copies the requested data sets and marks the journal; the returned task can run anywhere
+    public static SaveTask prepareSave(SchoolManagementSystem school, LoginSystem loginSystem,
+                                       Set<DataSet> dataSets) throws IOException {
+        return prepareSave(school, loginSystem, dataSets, markJournal());
+    }
+    
+    // As above with a mark taken earlier, before dataSets were collected
+    public static SaveTask prepareSave(SchoolManagementSystem school, LoginSystem loginSystem,
+                                       Set<DataSet> dataSets, JournalMark mark) throws IOException {
+        List<SaveTask> writes = new ArrayList<>();
+        File dir = new File(dataDir());
+        
+        // The mark is taken before copying: a change made concurrently is then either
+        // in the copy or after the mark, and replaying it on top of the copy is harmless
+        Journal currentJournal = mark.journal;
+        long journalMark = mark.position;
+        
+        if (dataSets.contains(DataSet.STUDENTS)) {
+            List<Student> students = school.getAllStudents();
+            writes.add(() -> BinarySnapshot.saveStudents(students, new File(dir, BinarySnapshot.STUDENTS_FILE)));
+        }
+        if (dataSets.contains(DataSet.TEACHERS)) {
+            List<Teacher> teachers = school.getAllTeachers();
+            writes.add(() -> BinarySnapshot.saveTeachers(teachers, new File(dir, BinarySnapshot.TEACHERS_FILE)));
+        }
+        if (dataSets.contains(DataSet.GRADES)) {
+            List<Grade> grades = school.getAllGrades();
+            writes.add(() -> BinarySnapshot.saveGrades(grades, new File(dir, BinarySnapshot.GRADES_FILE)));
+        }
+        if (dataSets.contains(DataSet.ATTENDANCE)) {
+            List<Attendance> attendance = school.getAllAttendance();
+            writes.add(() -> BinarySnapshot.saveAttendance(attendance, new File(dir, BinarySnapshot.ATTENDANCE_FILE)));
+        }
+        if (dataSets.contains(DataSet.USERS)) {
+            List<User> users = loginSystem.getAllUsers();
+            writes.add(() -> BinarySnapshot.saveUsers(users, new File(dir, BinarySnapshot.USERS_FILE)));
+        }
+        
+        return () -> {
+            long start = System.nanoTime();
+            FlightEvents.Persistence event = new FlightEvents.Persistence();
+            event.begin();
             // Create data directory if it doesn't exist
-            File dir = new File(DATA_DIR);
             if (!dir.exists()) {
                 dir.mkdirs();
             }
             
-            // Save students
-            saveStudents(school.getAllStudents());
-            
-            // Save teachers  
-            saveTeachers(school.getAllTeachers());
+            for (SaveTask write : writes) {
+                write.run();
+            }
             
-            // Save grades
-            saveGrades(school.getAllGrades());
+            // Journal records up to the mark are now in the snapshot
+            if (currentJournal != null) {
+                currentJournal.checkpoint(journalMark);
+            }
+            SAVE_TIMER.recordSince(start);
+            event.end("save", 0);
+        };
+    }
+    
+    public static boolean loadData(SchoolManagementSystem school, LoginSystem loginSystem) {
+        return loadUserData(loginSystem) && loadSchoolData(school, loginSystem);
+    }
+    
+    // Roles and users only, with their unsaved journal changes, so logins can be
+    // checked while loadSchoolData is still running. Returns false if there is no saved data.
+    public static boolean loadUserData(LoginSystem loginSystem) {
+        long start = System.nanoTime();
+        FlightEvents.Persistence event = new FlightEvents.Persistence();
+        event.begin();
+        try {
+            File dir = new File(dataDir());
+            if (!dir.exists()) {
+                return false; // No saved data
+            }
             
-            // Save attendance
-            saveAttendance(school);
+            File rolesFile = new File(dir, ROLES_FILE);
+            if (rolesFile.exists()) {
+                loginSystem.getRolePermissions().load(rolesFile);
+            }
             
-            // Save users
-            saveUsers(loginSystem.getAllUsers());
+            if (BinarySnapshot.exists(dir.getPath())) {
+                BinarySnapshot.loadUsers(loginSystem, dir.getPath());
+            } else {
+                loadUsers(loginSystem, new File(dir, USERS_FILE));
+            }
             
-            System.out.println("Data saved successfully!");
+            int replayed = replayJournal(null, loginSystem, EnumSet.of(DataSet.USERS));
+            if (replayed > 0) {
+                System.out.println("Recovered " + replayed + " unsaved user changes from journal");
+            }
+            return true;
             
         } catch (Exception e) {
-            System.err.println("Error saving data: " + e.getMessage());
+            System.err.println("Error loading users: " + e.getMessage());
+            return false;
+        } finally {
+            LOAD_USERS_TIMER.recordSince(start);
+            event.end("loadUserData", 0);
         }
     }
     
-    public static boolean loadData(SchoolManagementSystem school, LoginSystem loginSystem) {
+    // Everything except users; call after loadUserData
+    public static boolean loadSchoolData(SchoolManagementSystem school, LoginSystem loginSystem) {
+        long start = System.nanoTime();
+        FlightEvents.Persistence event = new FlightEvents.Persistence();
+        event.begin();
         try {
-            File dir = new File(DATA_DIR);
+            File dir = new File(dataDir());
             if (!dir.exists()) {
                 return false; // No saved data
             }
             
-            // Load students
-            loadStudents(school);
-            
-            // Load teachers
-            loadTeachers(school);
-            
-            // Load grades  
-            loadGrades(school);
-            
-            // Load attendance
-            loadAttendance(school);
+            if (BinarySnapshot.exists(dir.getPath())) {
+                BinarySnapshot.loadSchool(school, dir.getPath());
+            } else {
+                // Data saved before the binary format existed; convert it now so later
+                // saves, which only rewrite changed data sets, start from a full snapshot
+                loadStudents(school, new File(dir, STUDENTS_FILE));
+                loadTeachers(school, new File(dir, TEACHERS_FILE));
+                loadGrades(school, new File(dir, GRADES_FILE));
+                loadAttendance(school, new File(dir, ATTENDANCE_FILE));
+                prepareSave(school, loginSystem, EnumSet.allOf(DataSet.class)).run();
+            }
             
-            // Load users
-            loadUsers(loginSystem);
+            // Replay changes made after the last save
+            int replayed = replayJournal(school, loginSystem, EnumSet.complementOf(EnumSet.of(DataSet.USERS)));
+            if (replayed > 0) {
+                System.out.println("Recovered " + replayed + " unsaved changes from journal");
+            }
             
             System.out.println("Data loaded successfully!");
             return true;
@@ -67,229 +206,458 @@ public class DataPersistence {
         } catch (Exception e) {
             System.err.println("Error loading data: " + e.getMessage());
             return false;
+        } finally {
+            LOAD_SCHOOL_TIMER.recordSince(start);
+            event.end("loadSchoolData", 0);
         }
     }
     
-    private static void saveStudents(List<Student> students) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(STUDENTS_FILE))) {
+    private static int replayJournal(SchoolManagementSystem school, LoginSystem loginSystem,
+                                     Set<DataSet> dataSets) throws IOException {
+        long start = System.nanoTime();
+        FlightEvents.Persistence event = new FlightEvents.Persistence();
+        event.begin();
+        int replayed = Journal.replay(new File(dataDir(), JOURNAL_FILE).getPath(), school, loginSystem, dataSets);
+        REPLAY_TIMER.recordSince(start);
+        REPLAYED.add(replayed);
+        event.end("journalReplay", replayed);
+        return replayed;
+    }
+    
+    // Duration, size and row count of one data file read or written, as metrics and
+    // as the flight event started before the file was opened
+    static void recordFileMetrics(String phase, File file, int rows, FlightEvents.DataFile event) {
+        String name = "persistence." + phase + "." + file.getName();
+        long bytes = file.length();
+        Metrics.timer(name).recordSince(event.startNanos);
+        Metrics.counter(name + ".bytes").add(bytes);
+        Metrics.counter(name + ".rows").add(rows);
+        event.end(phase, file, rows, bytes);
+    }
+    
+    // Write all data as pipe-delimited text files into dirName
+    public static void exportTextData(SchoolManagementSystem school, LoginSystem loginSystem,
+                                      String dirName) throws IOException {
+        File dir = new File(dirName);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        
+        saveStudents(school.getAllStudents(), new File(dir, STUDENTS_FILE));
+        saveTeachers(school.getAllTeachers(), new File(dir, TEACHERS_FILE));
+        saveGrades(school.getAllGrades(), new File(dir, GRADES_FILE));
+        saveAttendance(school, new File(dir, ATTENDANCE_FILE));
+        saveUsers(loginSystem.getAllUsers(), new File(dir, USERS_FILE));
+    }
+    
+    // Add the records from pipe-delimited text files in dirName
+    public static void importTextData(SchoolManagementSystem school, LoginSystem loginSystem,
+                                      String dirName) throws IOException {
+        File dir = new File(dirName);
+        loadStudents(school, new File(dir, STUDENTS_FILE));
+        loadTeachers(school, new File(dir, TEACHERS_FILE));
+        loadGrades(school, new File(dir, GRADES_FILE));
+        loadAttendance(school, new File(dir, ATTENDANCE_FILE));
+        loadUsers(loginSystem, new File(dir, USERS_FILE));
+    }
+    
+    // Start journaling every change made to school and loginSystem. Call after loadData.
+    public static void openJournal(SchoolManagementSystem school, LoginSystem loginSystem) {
+        closeJournal();
+        try {
+            File dir = new File(dataDir());
+            if (!dir.exists()) {
+                dir.mkdirs();
+            }
+            journal = new Journal(new File(dir, JOURNAL_FILE).getPath());
+            school.setJournal(journal);
+            loginSystem.setJournal(journal);
+            journaledSchool = school;
+            journaledLogins = loginSystem;
+        } catch (IOException e) {
+            System.err.println("Error opening journal: " + e.getMessage());
+        }
+    }
+    
+    // Detaches the journal first: a closed journal refuses records
+    public static void closeJournal() {
+        if (journal != null) {
+            journaledSchool.setJournal(null);
+            journaledLogins.setJournal(null);
+            journaledSchool = null;
+            journaledLogins = null;
+            journal.close();
+            journal = null;
+        }
+    }
+    
+    private static void saveStudents(List<Student> students, File file) throws IOException {
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
             for (Student student : students) {
-                writer.println(String.format("%s|%s|%s|%s|%s|%s|%s|%s|%s|%s|%s|%.2f|%.2f",
-                    student.getStudentId(),
-                    student.getFirstName(),
-                    student.getLastName(),
-                    student.getFormattedDOB(),
-                    student.getGender(),
-                    student.getGrade(),
-                    student.getParentName(),
-                    student.getParentPhone(),
-                    student.getParentEmail(),
-                    student.getAddress(),
-                    student.getStatus(),
-                    student.getFeesTotal(),
-                    student.getFeesPaid()
-                ));
+                writer.println(formatStudent(student));
             }
         }
+        recordFileMetrics("save", file, students.size(), event);
+    }
+    
+    static String formatStudent(Student student) {
+        return String.format("%s|%s|%s|%s|%s|%s|%s|%s|%s|%s|%s|%.2f|%.2f",
+            escape(student.getStudentId()),
+            escape(student.getFirstName()),
+            escape(student.getLastName()),
+            student.getFormattedDOB(),
+            escape(student.getGender()),
+            escape(student.getGrade()),
+            escape(student.getParentName()),
+            escape(student.getParentPhone()),
+            escape(student.getParentEmail()),
+            escape(student.getAddress()),
+            escape(student.getStatus()),
+            student.getFeesTotal(),
+            student.getFeesPaid()
+        );
     }
     
-    private static void loadStudents(SchoolManagementSystem school) throws IOException {
-        File file = new File(STUDENTS_FILE);
+    private static void loadStudents(SchoolManagementSystem school, File file) throws IOException {
         if (!file.exists()) return;
         
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        int rows = 0;
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 11) {
-                    // Create student with existing ID
-                    Student student = new Student(
-                        parts[0], // id
-                        parts[1], // firstName
-                        parts[2], // lastName
-                        java.time.LocalDate.parse(parts[3]), // dob
-                        parts[4], // gender
-                        parts[5], // grade
-                        parts[6], // parentName
-                        parts[7], // parentPhone
-                        parts[8], // parentEmail
-                        parts[9]  // address
-                    );
-                    student.setStatus(parts[10]);
-                    if (parts.length > 11) student.setFeesTotal(Double.parseDouble(parts[11]));
-                    if (parts.length > 12) student.addFeePayment(Double.parseDouble(parts[12]));
-                    
+                Student student = parseStudent(splitFields(line));
+                if (student != null) {
                     // Add to school system
                     school.addExistingStudent(student);
+                    rows++;
                 }
             }
         }
+        recordFileMetrics("load", file, rows, event);
     }
     
-    private static void saveTeachers(List<Teacher> teachers) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(TEACHERS_FILE))) {
+    static Student parseStudent(String[] parts) {
+        if (parts.length < 11) return null;
+        
+        // Create student with existing ID
+        Student student = new Student(
+            parts[0], // id
+            parts[1], // firstName
+            parts[2], // lastName
+            java.time.LocalDate.parse(parts[3]), // dob
+            parts[4], // gender
+            parts[5], // grade
+            parts[6], // parentName
+            parts[7], // parentPhone
+            parts[8], // parentEmail
+            parts[9]  // address
+        );
+        student.setStatus(parts[10]);
+        if (parts.length > 11) student.setFeesTotal(Double.parseDouble(parts[11]));
+        if (parts.length > 12) student.addFeePayment(Double.parseDouble(parts[12]));
+        return student;
+    }
+    
+    private static void saveTeachers(List<Teacher> teachers, File file) throws IOException {
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
             for (Teacher teacher : teachers) {
-                writer.println(String.format("%s|%s|%s|%s|%s|%s|%s|%.2f|%s|%s",
-                    teacher.getTeacherId(),
-                    teacher.getFirstName(),
-                    teacher.getLastName(),
-                    teacher.getEmail(),
-                    teacher.getPhone(),
-                    teacher.getSubject(),
-                    teacher.getQualification(),
-                    teacher.getSalary(),
-                    teacher.getAddress(),
-                    teacher.getStatus()
-                ));
+                writer.println(formatTeacher(teacher));
             }
         }
+        recordFileMetrics("save", file, teachers.size(), event);
+    }
+    
+    static String formatTeacher(Teacher teacher) {
+        return String.format("%s|%s|%s|%s|%s|%s|%s|%.2f|%s|%s",
+            escape(teacher.getTeacherId()),
+            escape(teacher.getFirstName()),
+            escape(teacher.getLastName()),
+            escape(teacher.getEmail()),
+            escape(teacher.getPhone()),
+            escape(teacher.getSubject()),
+            escape(teacher.getQualification()),
+            teacher.getSalary(),
+            escape(teacher.getAddress()),
+            escape(teacher.getStatus())
+        );
     }
     
-    private static void loadTeachers(SchoolManagementSystem school) throws IOException {
-        File file = new File(TEACHERS_FILE);
+    private static void loadTeachers(SchoolManagementSystem school, File file) throws IOException {
         if (!file.exists()) return;
         
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        int rows = 0;
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 9) {
-                    Teacher teacher = new Teacher(
-                        parts[0], // id
-                        parts[1], // firstName
-                        parts[2], // lastName
-                        parts[3], // email
-                        parts[4], // phone
-                        parts[5], // subject
-                        parts[6], // qualification
-                        Double.parseDouble(parts[7]), // salary
-                        parts[8]  // address
-                    );
-                    if (parts.length > 9) teacher.setStatus(parts[9]);
-                    
+                Teacher teacher = parseTeacher(splitFields(line));
+                if (teacher != null) {
                     school.addExistingTeacher(teacher);
+                    rows++;
                 }
             }
         }
+        recordFileMetrics("load", file, rows, event);
+    }
+    
+    static Teacher parseTeacher(String[] parts) {
+        if (parts.length < 9) return null;
+        
+        Teacher teacher = new Teacher(
+            parts[0], // id
+            parts[1], // firstName
+            parts[2], // lastName
+            parts[3], // email
+            parts[4], // phone
+            parts[5], // subject
+            parts[6], // qualification
+            Double.parseDouble(parts[7]), // salary
+            parts[8]  // address
+        );
+        if (parts.length > 9) teacher.setStatus(parts[9]);
+        return teacher;
     }
     
-    private static void saveGrades(List<Grade> grades) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(GRADES_FILE))) {
+    private static void saveGrades(List<Grade> grades, File file) throws IOException {
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
             for (Grade grade : grades) {
-                writer.println(String.format("%s|%s|%s|%s|%.2f|%.2f|%s|%s",
-                    grade.getGradeId(),
-                    grade.getStudentId(),
-                    grade.getSubject(),
-                    grade.getExamType(),
-                    grade.getMarks(),
-                    grade.getTotalMarks(),
-                    grade.getSemester(),
-                    grade.getAcademicYear()
-                ));
+                writer.println(formatGrade(grade));
             }
         }
+        recordFileMetrics("save", file, grades.size(), event);
     }
     
-    private static void loadGrades(SchoolManagementSystem school) throws IOException {
-        File file = new File(GRADES_FILE);
+    static String formatGrade(Grade grade) {
+        return String.format("%s|%s|%s|%s|%.2f|%.2f|%s|%s",
+            escape(grade.getGradeId()),
+            escape(grade.getStudentId()),
+            escape(grade.getSubject()),
+            escape(grade.getExamType()),
+            grade.getMarks(),
+            grade.getTotalMarks(),
+            escape(grade.getSemester()),
+            escape(grade.getAcademicYear())
+        );
+    }
+    
+    private static void loadGrades(SchoolManagementSystem school, File file) throws IOException {
         if (!file.exists()) return;
         
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        int rows = 0;
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 8) {
-                    school.addExistingGrade(new Grade(
-                        parts[0], // gradeId
-                        parts[1], // studentId
-                        parts[2], // subject
-                        parts[3], // examType
-                        Double.parseDouble(parts[4]), // marks
-                        Double.parseDouble(parts[5]), // totalMarks
-                        parts[6], // semester
-                        parts[7]  // academicYear
-                    ));
+                Grade grade = parseGrade(splitFields(line));
+                if (grade != null) {
+                    school.addExistingGrade(grade);
+                    rows++;
                 }
             }
         }
+        recordFileMetrics("load", file, rows, event);
     }
     
-    private static void saveUsers(List<User> users) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(USERS_FILE))) {
+    static Grade parseGrade(String[] parts) {
+        if (parts.length < 8) return null;
+        
+        return new Grade(
+            parts[0], // gradeId
+            parts[1], // studentId
+            parts[2], // subject
+            parts[3], // examType
+            Double.parseDouble(parts[4]), // marks
+            Double.parseDouble(parts[5]), // totalMarks
+            parts[6], // semester
+            parts[7]  // academicYear
+        );
+    }
+    
+    private static void saveUsers(List<User> users, File file) throws IOException {
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
             for (User user : users) {
-                writer.println(String.format("%s|%s|%s|%s|%s|%s|%s|%b",
-                    user.getUserId(),
-                    user.getUsername(),
-                    user.getPassword(),
-                    user.getRole(),
-                    user.getFullName(),
-                    user.getEmail(),
-                    user.getAssociatedId(),
-                    user.isActive()
-                ));
+                writer.println(formatUser(user));
+            }
+        }
+        recordFileMetrics("save", file, users.size(), event);
+    }
+    
+    static String formatUser(User user) {
+        return String.format("%s|%s|%s|%s|%s|%s|%s|%b",
+            escape(user.getUserId()),
+            escape(user.getUsername()),
+            escape(user.getPassword()),
+            escape(user.getRole()),
+            escape(user.getFullName()),
+            escape(user.getEmail()),
+            escape(user.getAssociatedId()),
+            user.isActive()
+        );
+    }
+    
+    // One pass over the attendance store in date order, including rows whose student is
+    // gone. Each day is copied under the attendance lock and written after releasing it.
+    private static void saveAttendance(SchoolManagementSystem school, File file) throws IOException {
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        int[] rows = new int[1];
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            StringBuilder line = new StringBuilder(64);
+            school.forEachAttendanceDay(day -> {
+                try {
+                    for (Attendance attendance : day) {
+                        line.setLength(0);
+                        appendAttendance(line, attendance).append('\n');
+                        writer.append(line);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0] += day.size();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        recordFileMetrics("save", file, rows[0], event);
+    }
+    
+    static String formatAttendance(Attendance attendance) {
+        return appendAttendance(new StringBuilder(64), attendance).toString();
+    }
+    
+    private static StringBuilder appendAttendance(StringBuilder line, Attendance attendance) {
+        appendEscaped(line, attendance.getAttendanceId()).append('|');
+        appendEscaped(line, attendance.getStudentId()).append('|');
+        line.append(attendance.getDate()).append('|');
+        appendEscaped(line, attendance.getStatus()).append('|');
+        return appendEscaped(line, attendance.getRemarks());
+    }
+    
+    // Text fields are escaped so that a '|' or line break typed into a name or remark
+    // cannot split a record or start a new one: backslash, '|', newline and carriage
+    // return become \\, \|, \n and \r. splitFields() undoes this.
+    static String escape(String value) {
+        if (value == null) return "null";
+        for (int i = 0; i < value.length(); i++) {
+            if (needsEscape(value.charAt(i))) {
+                return appendEscaped(new StringBuilder(value.length() + 8), value).toString();
             }
         }
+        return value;
+    }
+    
+    private static StringBuilder appendEscaped(StringBuilder out, String value) {
+        if (value == null) return out.append("null");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': out.append("\\\\"); break;
+                case '|': out.append("\\|"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                default: out.append(c);
+            }
+        }
+        return out;
+    }
+    
+    private static boolean needsEscape(char c) {
+        return c == '\\' || c == '|' || c == '\n' || c == '\r';
     }
     
-    private static void saveAttendance(SchoolManagementSystem school) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(ATTENDANCE_FILE))) {
-            for (Student student : school.getAllStudents()) {
-                for (Attendance attendance : school.getStudentAttendance(student.getStudentId())) {
-                    writer.println(String.format("%s|%s|%s|%s|%s",
-                        attendance.getAttendanceId(),
-                        attendance.getStudentId(),
-                        attendance.getDate().toString(),
-                        attendance.getStatus(),
-                        attendance.getRemarks()
-                    ));
+    // Splits a record on unescaped '|' and unescapes each field, keeping empty fields.
+    // Files written before escaping have no escapes, except perhaps a literal backslash,
+    // which is kept as it is unless it happens to precede one of the escaped characters.
+    static String[] splitFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '|') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(i + 1);
+                switch (next) {
+                    case '\\': field.append('\\'); i++; break;
+                    case '|': field.append('|'); i++; break;
+                    case 'n': field.append('\n'); i++; break;
+                    case 'r': field.append('\r'); i++; break;
+                    default: field.append(c);
                 }
+            } else {
+                field.append(c);
             }
         }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
     }
     
-    private static void loadAttendance(SchoolManagementSystem school) throws IOException {
-        File file = new File(ATTENDANCE_FILE);
+    private static void loadAttendance(SchoolManagementSystem school, File file) throws IOException {
         if (!file.exists()) return;
         
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        int rows = 0;
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 5) {
-                    school.addExistingAttendance(new Attendance(
-                        parts[0], // attendanceId
-                        parts[1], // studentId
-                        java.time.LocalDate.parse(parts[2]), // date
-                        parts[3], // status
-                        parts[4]  // remarks
-                    ));
+                Attendance attendance = parseAttendance(splitFields(line));
+                if (attendance != null) {
+                    school.addExistingAttendance(attendance);
+                    rows++;
                 }
             }
         }
+        recordFileMetrics("load", file, rows, event);
+    }
+    
+    static Attendance parseAttendance(String[] parts) {
+        if (parts.length < 5) return null;
+        
+        return new Attendance(
+            parts[0], // attendanceId
+            parts[1], // studentId
+            java.time.LocalDate.parse(parts[2]), // date
+            parts[3], // status
+            parts[4]  // remarks
+        );
     }
     
-    private static void loadUsers(LoginSystem loginSystem) throws IOException {
-        File file = new File(USERS_FILE);
+    private static void loadUsers(LoginSystem loginSystem, File file) throws IOException {
         if (!file.exists()) return;
         
+        FlightEvents.DataFile event = FlightEvents.DataFile.start();
+        int rows = 0;
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 7) {
-                    User user = new User(
-                        parts[0], // userId
-                        parts[1], // username
-                        parts[2], // password
-                        parts[3], // role
-                        parts[4], // fullName
-                        parts[5], // email
-                        parts[6]  // associatedId
-                    );
-                    if (parts.length > 7) user.setActive(Boolean.parseBoolean(parts[7]));
-                    
+                User user = parseUser(splitFields(line));
+                if (user != null) {
                     loginSystem.addExistingUser(user);
+                    rows++;
                 }
             }
         }
+        recordFileMetrics("load", file, rows, event);
+    }
+    
+    static User parseUser(String[] parts) {
+        if (parts.length < 7) return null;
+        
+        User user = new User(
+            parts[0], // userId
+            parts[1], // username
+            parts[2], // password
+            parts[3], // role
+            parts[4], // fullName
+            parts[5], // email
+            parts[6]  // associatedId
+        );
+        if (parts.length > 7) user.setActive(Boolean.parseBoolean(parts[7]));
+        return user;
     }
 }
\ No newline at end of file
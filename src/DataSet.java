@@ -0,0 +1,4 @@
+// The entity sets that are persisted as separate files
+public enum DataSet {
+    STUDENTS, TEACHERS, GRADES, ATTENDANCE, USERS
+}
@@ -0,0 +1,124 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Read-only table over a list of domain objects. Cells are computed from the row's
+// object when the table paints them, so only visible cells are ever formatted, and
+// replacing the rows fires one change event instead of one per row.
+//
+// With a key (the record ID), single records can be added, replaced or removed
+// in place, firing an event for just that row.
+public class EntityTableModel<T> extends AbstractTableModel {
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Function<T, Object>> columnValues = new ArrayList<>();
+    private List<T> rows = new ArrayList<>();
+    private Function<T, Object> key;
+    private Map<Object, Integer> rowByKey; // built on first use, dropped when all rows are replaced
+
+    public EntityTableModel<T> addColumn(String name, Function<T, Object> value) {
+        columnNames.add(name);
+        columnValues.add(value);
+        return this;
+    }
+
+    public EntityTableModel<T> withKey(Function<T, Object> key) {
+        this.key = key;
+        return this;
+    }
+
+    // The model keeps the list; callers pass a copy they no longer change
+    public void setRows(List<T> rows) {
+        this.rows = rows;
+        rowByKey = null;
+        fireTableDataChanged();
+    }
+
+    public void addRows(List<T> added) {
+        if (added.isEmpty()) return;
+        int first = rows.size();
+        rows.addAll(added);
+        if (rowByKey != null) {
+            for (int row = first; row < rows.size(); row++) {
+                rowByKey.put(key.apply(rows.get(row)), row);
+            }
+        }
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    // Appends the record, or replaces the row that has its key
+    public void addRow(T item) {
+        if (indexOf(item) >= 0) {
+            updateRow(item);
+            return;
+        }
+        rows.add(item);
+        if (rowByKey != null) rowByKey.put(key.apply(item), rows.size() - 1);
+        fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+    }
+
+    // Redraws the row with the item's key, if it is shown
+    public void updateRow(T item) {
+        int row = indexOf(item);
+        if (row < 0) return;
+        rows.set(row, item);
+        fireTableRowsUpdated(row, row);
+    }
+
+    // Keeps row order, so a selected row still shows the same record. The rows after
+    // the removed one move up and their index entries are shifted with them, rather
+    // than the whole index being rebuilt for each row of a cascading student removal.
+    public void removeRow(T item) {
+        int row = indexOf(item);
+        if (row < 0) return;
+        rows.remove(row);
+        rowByKey.remove(key.apply(item));
+        for (int later = row; later < rows.size(); later++) {
+            rowByKey.put(key.apply(rows.get(later)), later);
+        }
+        fireTableRowsDeleted(row, row);
+    }
+
+    // Redraws every row without changing them, e.g. after a value shown in all rows changed
+    public void refreshRows() {
+        if (!rows.isEmpty()) fireTableRowsUpdated(0, rows.size() - 1);
+    }
+
+    private int indexOf(T item) {
+        if (key == null) throw new IllegalStateException("Table model has no key");
+        if (rowByKey == null) {
+            rowByKey = new HashMap<>();
+            for (int row = 0; row < rows.size(); row++) {
+                rowByKey.put(key.apply(rows.get(row)), row);
+            }
+        }
+        Integer row = rowByKey.get(key.apply(item));
+        return row != null ? row : -1;
+    }
+
+    public T getRow(int row) {
+        return rows.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames.get(column);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return columnValues.get(column).apply(rows.get(row));
+    }
+}
@@ -0,0 +1,216 @@
+import java.io.File;
+import java.time.LocalDate;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Java Flight Recorder events for business operations, so a recording shows which
+// action (and which student or file) was running when time went into String.format,
+// locks or GC. They are emitted at the points Metrics times. Enable them with
+//   java -XX:StartFlightRecording:filename=school.jfr,settings=profile -cp bin App
+// and look under "School Management" in JDK Mission Control.
+//
+// Each event is begun before the work and committed after it. Fields are only filled
+// in when shouldCommit() says the event is enabled and over its threshold, so with
+// no recording running an event costs little more than the allocation.
+public class FlightEvents {
+    private FlightEvents() {
+    }
+
+    @Name("schoolmanagement.AddGrade")
+    @Label("Add Grade")
+    @Category({"School Management", "Grades"})
+    static class AddGrade extends Event {
+        @Label("Student ID")
+        String studentId;
+
+        @Label("Grade ID")
+        String gradeId;
+
+        @Label("Subject")
+        String subject;
+
+        void end(String studentId, String gradeId, String subject) {
+            if (!shouldCommit()) return;
+            this.studentId = studentId;
+            this.gradeId = gradeId;
+            this.subject = subject;
+            commit();
+        }
+    }
+
+    @Name("schoolmanagement.MarkAttendance")
+    @Label("Mark Attendance")
+    @Category({"School Management", "Attendance"})
+    static class MarkAttendance extends Event {
+        @Label("Student ID")
+        String studentId;
+
+        @Label("Attendance ID")
+        String attendanceId;
+
+        @Label("Date")
+        String date;
+
+        @Label("Status")
+        String status;
+
+        void end(String studentId, String attendanceId, LocalDate date, String status) {
+            if (!shouldCommit()) return;
+            this.studentId = studentId;
+            this.attendanceId = attendanceId;
+            this.date = date.toString();
+            this.status = status;
+            commit();
+        }
+    }
+
+    @Name("schoolmanagement.GpaCalculation")
+    @Label("GPA Calculation")
+    @Category({"School Management", "Grades"})
+    static class GpaCalculation extends Event {
+        @Label("Student ID")
+        String studentId;
+
+        @Label("Scope")
+        @Description("\"overall\", \"subject\" or \"term\"")
+        String scope;
+
+        @Label("Subject")
+        String subject;
+
+        @Label("Semester")
+        String semester;
+
+        @Label("Academic Year")
+        String academicYear;
+
+        @Label("Grades")
+        @Description("Grades the student has in total")
+        int gradeCount;
+
+        @Label("GPA")
+        double gpa;
+
+        void end(String studentId, String scope, String subject, String semester, String academicYear,
+                 int gradeCount, double gpa) {
+            if (!shouldCommit()) return;
+            this.studentId = studentId;
+            this.scope = scope;
+            this.subject = subject;
+            this.semester = semester;
+            this.academicYear = academicYear;
+            this.gradeCount = gradeCount;
+            this.gpa = gpa;
+            commit();
+        }
+    }
+
+    @Name("schoolmanagement.Search")
+    @Label("Search")
+    @Category({"School Management", "Search"})
+    static class Search extends Event {
+        @Label("Entity")
+        @Description("\"students\" or \"teachers\"")
+        String entity;
+
+        @Label("Keyword")
+        String keyword;
+
+        @Label("Results")
+        int results;
+
+        void end(String entity, String keyword, int results) {
+            if (!shouldCommit()) return;
+            this.entity = entity;
+            this.keyword = keyword;
+            this.results = results;
+            commit();
+        }
+    }
+
+    @Name("schoolmanagement.Login")
+    @Label("Login")
+    @Category({"School Management", "Authentication"})
+    static class Login extends Event {
+        @Label("Username")
+        String username;
+
+        @Label("Outcome")
+        @Description("\"accepted\", \"unknownUser\", \"badPassword\" or \"inactiveUser\"")
+        String outcome;
+
+        @Label("Open Sessions")
+        int sessions;
+
+        void end(String username, String outcome, int sessions) {
+            if (!shouldCommit()) return;
+            this.username = username;
+            this.outcome = outcome;
+            this.sessions = sessions;
+            commit();
+        }
+    }
+
+    // One data file (one entity set) read or written
+    @Name("schoolmanagement.DataFile")
+    @Label("Data File")
+    @Category({"School Management", "Persistence"})
+    static class DataFile extends Event {
+        @Label("Operation")
+        @Description("\"load\" or \"save\"")
+        String operation;
+
+        @Label("File")
+        String file;
+
+        @Label("Rows")
+        int rows;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        transient long startNanos; // for the Metrics timer; not recorded
+
+        static DataFile start() {
+            DataFile event = new DataFile();
+            event.startNanos = System.nanoTime();
+            event.begin();
+            return event;
+        }
+
+        void end(String operation, File file, int rows, long bytes) {
+            if (!shouldCommit()) return;
+            this.operation = operation;
+            this.file = file.getName();
+            this.rows = rows;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+
+    // A whole load, save or journal replay, around the DataFile events it caused
+    @Name("schoolmanagement.Persistence")
+    @Label("Persistence Phase")
+    @Category({"School Management", "Persistence"})
+    static class Persistence extends Event {
+        @Label("Phase")
+        @Description("\"loadUserData\", \"loadSchoolData\", \"save\" or \"journalReplay\"")
+        String phase;
+
+        @Label("Records")
+        @Description("Journal records replayed; 0 for other phases")
+        int records;
+
+        void end(String phase, int records) {
+            if (!shouldCommit()) return;
+            this.phase = phase;
+            this.records = records;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+// Running sum/count of grade percentages, kept up to date as grades change
+public class GpaAggregate {
+    private double totalPercentage;
+    private int count;
+    
+    public void add(double percentage) {
+        totalPercentage += percentage;
+        count++;
+    }
+    
+    public void remove(double percentage) {
+        count--;
+        // Reset rather than subtract to avoid carrying rounding error into an empty aggregate
+        totalPercentage = count > 0 ? totalPercentage - percentage : 0.0;
+    }
+    
+    public int getCount() { return count; }
+    
+    public double getAverage() {
+        return count > 0 ? totalPercentage / count : 0.0;
+    }
+}
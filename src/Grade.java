@@ -8,6 +8,12 @@ public class Grade {
     private String grade;
     private String semester;
     private String academicYear;
+    private PercentageListener percentageListener;
+    
+    // Notified after marks or total marks change, with the percentage before the change
+    public interface PercentageListener {
+        void percentageChanged(Grade grade, double oldPercentage);
+    }
     
     public Grade(String gradeId, String studentId, String subject, String examType,
                 double marks, double totalMarks, String semester, String academicYear) {
@@ -45,12 +51,26 @@ public class Grade {
     
     // Setters
     public void setMarks(double marks) { 
+        double oldPercentage = getPercentage();
         this.marks = marks; 
         this.grade = calculateGrade();
+        notifyPercentageChanged(oldPercentage);
     }
     public void setTotalMarks(double totalMarks) { 
+        double oldPercentage = getPercentage();
         this.totalMarks = totalMarks;
         this.grade = calculateGrade();
+        notifyPercentageChanged(oldPercentage);
+    }
+    
+    void setPercentageListener(PercentageListener listener) {
+        this.percentageListener = listener;
+    }
+    
+    private void notifyPercentageChanged(double oldPercentage) {
+        if (percentageListener != null) {
+            percentageListener.percentageChanged(this, oldPercentage);
+        }
     }
     
     public double getPercentage() {
@@ -0,0 +1,389 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Append-only write-ahead journal of data changes made since the last snapshot.
+// Each record carries the full new state of one entity (or a removal). The journal is
+// only truncated after a snapshot, so replay may repeat changes the snapshot already
+// has: re-applying an entity's state is harmless, and a student removal also drops
+// that student's grades and attendance when the student itself is already gone, as
+// they may have been re-added by earlier records in the journal.
+public class Journal {
+    private static final String STUDENT = "STUDENT";
+    private static final String STUDENT_REMOVED = "STUDENT_REMOVED";
+    private static final String TEACHER = "TEACHER";
+    private static final String TEACHER_REMOVED = "TEACHER_REMOVED";
+    private static final String GRADE = "GRADE";
+    private static final String ATTENDANCE = "ATTENDANCE";
+    private static final String USER = "USER";
+    private static final String USER_REMOVED = "USER_REMOVED";
+
+    // "append" is what a change waits for, "sync" one batch's write and fsync
+    private static final LatencyHistogram APPEND_TIMER = Metrics.timer("persistence.journal.append");
+    private static final LatencyHistogram SYNC_TIMER = Metrics.timer("persistence.journal.sync");
+    private static final LatencyHistogram CHECKPOINT_TIMER = Metrics.timer("persistence.journal.checkpoint");
+    private static final LongAdder RECORDS = Metrics.counter("persistence.journal.records");
+    private static final LongAdder BYTES = Metrics.counter("persistence.journal.bytes");
+
+    private final Path path;
+    private final Thread writer;
+    // A ReentrantLock rather than a monitor, so virtual threads waiting for their
+    // fsync unmount instead of pinning their carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition(); // records added, written, or closed
+
+    // Guarded by lock
+    private FileChannel channel;
+    private List<String> pending = new ArrayList<>();
+    private long appendedCount;
+    private long durableCount;
+    private long trimmedBytes; // discarded by checkpoints, so marks stay valid across them
+    private boolean closed;
+    private IOException failure; // set by the first failed write; the journal then refuses records
+
+    public Journal(String fileName) throws IOException {
+        path = Paths.get(fileName);
+        channel = openChannel();
+        writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE,
+                                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // Record builders used by SchoolManagementSystem and LoginSystem
+    public void logStudent(Student student) { append(STUDENT, DataPersistence.formatStudent(student)); }
+    public void logStudentRemoved(String studentId) { append(STUDENT_REMOVED, DataPersistence.escape(studentId)); }
+    public void logTeacher(Teacher teacher) { append(TEACHER, DataPersistence.formatTeacher(teacher)); }
+    public void logTeacherRemoved(String teacherId) { append(TEACHER_REMOVED, DataPersistence.escape(teacherId)); }
+    public void logGrade(Grade grade) { append(GRADE, DataPersistence.formatGrade(grade)); }
+    public void logAttendance(Attendance attendance) { append(ATTENDANCE, DataPersistence.formatAttendance(attendance)); }
+    public void logUser(User user) { append(USER, DataPersistence.formatUser(user)); }
+    public void logUserRemoved(String username) { append(USER_REMOVED, DataPersistence.escape(username)); }
+
+    // Blocks until the record is on disk. Concurrent callers share one fsync (group commit).
+    // Throws if the record could not be made durable: the journal is closed, or a write
+    // failed, after which every later append fails too.
+    private void append(String type, String body) {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Journal is closed, change not recorded: " + type);
+            checkNotFailed();
+            pending.add(type + "|" + body);
+            long sequence = ++appendedCount;
+            changed.signalAll();
+
+            while (durableCount < sequence && failure == null) {
+                changed.awaitUninterruptibly();
+            }
+            if (durableCount < sequence) checkNotFailed();
+        } finally {
+            lock.unlock();
+        }
+        APPEND_TIMER.recordSince(start);
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed, change not recorded", failure);
+        }
+    }
+
+    // True once a write has failed; the journal then records nothing more
+    public boolean isFailed() {
+        lock.lock();
+        try {
+            return failure != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            List<String> batch;
+            long batchEnd;
+            FileChannel target;
+            lock.lock();
+            try {
+                // Keep draining until close() says we are done
+                while (pending.isEmpty() && !closed) {
+                    changed.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) return;
+                batch = pending;
+                pending = new ArrayList<>();
+                batchEnd = appendedCount;
+                target = channel;
+            } finally {
+                lock.unlock();
+            }
+
+            long start = System.nanoTime();
+            try {
+                StringBuilder text = new StringBuilder();
+                for (String record : batch) {
+                    text.append(record).append('\n');
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                target.force(false);
+                RECORDS.add(batch.size());
+                BYTES.add(buffer.limit());
+            } catch (IOException e) {
+                // Stop here: the batch may be partly on disk, so nothing after it may
+                // be written, and its callers must not be told their change is durable
+                System.err.println("Error writing journal: " + e.getMessage());
+                lock.lock();
+                try {
+                    failure = e;
+                    pending.clear();
+                    changed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            SYNC_TIMER.recordSince(start);
+
+            lock.lock();
+            try {
+                durableCount = batchEnd;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Journal position covering every record appended so far. Take it at the same
+    // moment as the data copied into a snapshot, then pass it to checkpoint().
+    public long mark() throws IOException {
+        lock.lock();
+        try {
+            awaitDurable();
+            return trimmedBytes + channel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Discard the records before mark, which a snapshot now contains. Records appended
+    // after the mark are kept. The file is replaced atomically, so a crash leaves
+    // either the old or the trimmed journal, and both replay correctly.
+    public void checkpoint(long mark) throws IOException {
+        long start = System.nanoTime();
+        try {
+            trim(mark);
+        } finally {
+            CHECKPOINT_TIMER.recordSince(start);
+        }
+    }
+
+    private void trim(long mark) throws IOException {
+        lock.lock();
+        try {
+            // No batch is in flight while we hold the lock with everything durable
+            awaitDurable();
+            long size = channel.size();
+            long end = mark - trimmedBytes; // position of the mark in the current file
+            if (end <= 0) return; // an earlier checkpoint already covered it
+            if (end >= size) {
+                channel.truncate(0);
+                channel.force(true);
+                trimmedBytes += size;
+                return;
+            }
+
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel tail = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long copied = 0;
+                while (copied < size - end) {
+                    copied += channel.transferTo(end + copied, size - end - copied, tail);
+                }
+                tail.force(true);
+            }
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel = openChannel();
+            trimmedBytes += end;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitDurable() throws IOException {
+        while (durableCount < appendedCount) {
+            if (failure != null) throw new IOException("Journal write failed", failure);
+            try {
+                changed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for journal writes");
+            }
+        }
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+            lock.lock();
+            try {
+                channel.close();
+            } finally {
+                lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Error closing journal: " + e.getMessage());
+        }
+    }
+
+    // Re-apply journal records on top of a loaded snapshot. Returns the number of records applied.
+    public static int replay(String fileName, SchoolManagementSystem school, LoginSystem loginSystem) throws IOException {
+        return replay(fileName, school, loginSystem, EnumSet.allOf(DataSet.class));
+    }
+
+    // Re-apply only the records of the given data sets; the others are skipped
+    public static int replay(String fileName, SchoolManagementSystem school, LoginSystem loginSystem,
+                             Set<DataSet> dataSets) throws IOException {
+        File file = new File(fileName);
+        if (!file.exists()) return 0;
+
+        int applied = 0;
+        int skipped = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) continue;
+                int separator = line.indexOf('|');
+                String type = separator < 0 ? line : line.substring(0, separator);
+                if (separator >= 0 && !dataSets.contains(dataSetOf(type))) continue;
+
+                boolean ok;
+                try {
+                    ok = separator >= 0
+                            && apply(type, DataPersistence.splitFields(line.substring(separator + 1)), school, loginSystem);
+                } catch (RuntimeException e) {
+                    ok = false;
+                }
+                if (ok) {
+                    applied++;
+                } else {
+                    // Expected only for a torn final record after a crash
+                    skipped++;
+                    System.err.println("Skipping unreadable journal record at line " + lineNumber + ": " + line);
+                }
+            }
+        }
+        if (skipped > 0) {
+            System.err.println("Journal replay skipped " + skipped + " of " + (applied + skipped) + " records");
+        }
+        return applied;
+    }
+
+    private static DataSet dataSetOf(String type) {
+        switch (type) {
+            case STUDENT:
+            case STUDENT_REMOVED:
+                return DataSet.STUDENTS;
+            case TEACHER:
+            case TEACHER_REMOVED:
+                return DataSet.TEACHERS;
+            case GRADE:
+                return DataSet.GRADES;
+            case ATTENDANCE:
+                return DataSet.ATTENDANCE;
+            default:
+                return DataSet.USERS;
+        }
+    }
+
+    private static boolean apply(String type, String[] parts, SchoolManagementSystem school, LoginSystem loginSystem) {
+        switch (type) {
+            case STUDENT: {
+                Student student = DataPersistence.parseStudent(parts);
+                if (student == null) return false;
+                school.addExistingStudent(student);
+                return true;
+            }
+            case STUDENT_REMOVED:
+                if (!school.removeStudent(parts[0])) {
+                    school.removeStudentRecords(parts[0]);
+                }
+                return true;
+            case TEACHER: {
+                Teacher teacher = DataPersistence.parseTeacher(parts);
+                if (teacher == null) return false;
+                school.addExistingTeacher(teacher);
+                return true;
+            }
+            case TEACHER_REMOVED:
+                school.removeTeacher(parts[0]);
+                return true;
+            case GRADE: {
+                Grade grade = DataPersistence.parseGrade(parts);
+                if (grade == null) return false;
+                Grade existing = school.findGrade(grade.getStudentId(), grade.getGradeId());
+                if (existing != null) {
+                    existing.setTotalMarks(grade.getTotalMarks());
+                    existing.setMarks(grade.getMarks());
+                } else {
+                    school.addExistingGrade(grade);
+                }
+                return true;
+            }
+            case ATTENDANCE: {
+                Attendance attendance = DataPersistence.parseAttendance(parts);
+                if (attendance == null) return false;
+                Attendance existing = school.findAttendance(attendance.getDate(), attendance.getAttendanceId());
+                if (existing != null) {
+                    existing.setStatus(attendance.getStatus());
+                    existing.setRemarks(attendance.getRemarks());
+                } else {
+                    school.addExistingAttendance(attendance);
+                }
+                return true;
+            }
+            case USER: {
+                User user = DataPersistence.parseUser(parts);
+                if (user == null) return false;
+                loginSystem.addExistingUser(user);
+                return true;
+            }
+            case USER_REMOVED:
+                loginSystem.removeUser(parts[0]);
+                return true;
+            default:
+                return false;
+        }
+    }
+}
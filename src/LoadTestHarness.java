@@ -0,0 +1,323 @@
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+// Load driver for the in-process SchoolManagementSystem and LoginSystem. Simulated
+// users run concurrently, one client thread each, and every call is timed into a
+// LatencyHistogram per operation. The report gives throughput, p50/p99/p99.9
+// latency and error counts (exceptions, failed logins, and calls that return
+// false or nothing).
+//
+// Scenarios:
+//   rollcall  each teacher logs in and marks today's attendance for their class,
+//             starting at a random time in the first half of --duration
+//   exams     each teacher publishes a year's results for their class at once
+//   mixed     --clients users pick operations by the --mix weights until --duration ends
+//
+// The school is made by SampleDataGenerator; teacher accounts are tea1, tea2, ...
+// Clients run on virtual threads when the JDK has them, unless --platform-threads.
+// Usage:
+//   java LoadTestHarness [--scenario rollcall|exams|mixed] [--students N] [--teachers N]
+//                        [--clients N] [--duration SECONDS] [--think-ms MEAN]
+//                        [--mix op=weight,...] [--platform-threads] [--journal] [--metrics] [--seed N]
+// --journal also appends every change to the journal in -Dschool.dataDir; point that
+// at a scratch directory. --metrics prints the Metrics registry after the report.
+public class LoadTestHarness {
+    enum Operation {
+        LOGIN("login"), MARK_ATTENDANCE("attendance"), ADD_GRADE("grade"), VIEW_GRADES("view"),
+        CALCULATE_GPA("gpa"), ATTENDANCE_REPORT("report"), SEARCH("search"), OUTSTANDING_FEES("fees");
+
+        final String key; // name used in --mix
+
+        Operation(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final String[] SUBJECTS = {"Mathematics", "English", "Science", "History", "Geography", "Physics"};
+    private static final String[] ROLL_CALL_STATUSES = {"Present", "Present", "Present", "Present", "Present",
+                                                       "Present", "Present", "Present", "Late", "Absent"};
+
+    private String scenario = "rollcall";
+    private int students = 9000;
+    private int teachers = 300;
+    private int clients = -1;        // mixed scenario; one per teacher unless set
+    private int durationSeconds = 300;
+    private long thinkMillis = -1;   // mean; each scenario has its own default
+    private String mix = "attendance=40,grade=20,view=15,gpa=10,report=5,search=5,login=4,fees=1";
+    private boolean platformThreads;
+    private boolean journal;
+    private boolean printMetrics;
+    private long seed = 42;
+
+    private final SchoolManagementSystem school = new SchoolManagementSystem();
+    private final LoginSystem loginSystem = new LoginSystem();
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    public LoadTestHarness() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestHarness harness = new LoadTestHarness();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--scenario": harness.scenario = args[++i]; break;
+                case "--students": harness.students = Integer.parseInt(args[++i]); break;
+                case "--teachers": harness.teachers = Integer.parseInt(args[++i]); break;
+                case "--clients": harness.clients = Integer.parseInt(args[++i]); break;
+                case "--duration": harness.durationSeconds = Integer.parseInt(args[++i]); break;
+                case "--think-ms": harness.thinkMillis = Long.parseLong(args[++i]); break;
+                case "--mix": harness.mix = args[++i]; break;
+                case "--platform-threads": harness.platformThreads = true; break;
+                case "--journal": harness.journal = true; break;
+                case "--metrics": harness.printMetrics = true; break;
+                case "--seed": harness.seed = Long.parseLong(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        harness.run();
+    }
+
+    public void run() throws InterruptedException {
+        System.out.println("Generating " + students + " students and " + teachers + " teachers...");
+        new SampleDataGenerator().students(students).teachers(teachers).schoolDaysPerYear(0)
+                .examsPerSubjectPerTerm(0).seed(seed).populate(school, loginSystem);
+        if (journal) {
+            DataPersistence.openJournal(school, loginSystem);
+        }
+
+        List<Runnable> clientTasks = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(seed);
+        switch (scenario) {
+            case "rollcall":
+                for (int t = 1; t <= teachers; t++) clientTasks.add(rollCallClient(t, random.split()));
+                break;
+            case "exams":
+                for (int t = 1; t <= teachers; t++) clientTasks.add(examClient(t, random.split()));
+                break;
+            case "mixed": {
+                Operation[] weighted = parseMix(mix);
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+                int count = clients > 0 ? clients : teachers;
+                for (int c = 1; c <= count; c++) clientTasks.add(mixedClient(c, weighted, deadline, random.split()));
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+
+        ExecutorService executor = newClientExecutor(platformThreads);
+        long start = System.nanoTime();
+        List<Future<?>> running = new ArrayList<>();
+        for (Runnable task : clientTasks) {
+            running.add(executor.submit(task));
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                System.err.println("Client failed: " + e.getCause());
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+        if (journal) {
+            DataPersistence.closeJournal();
+        }
+
+        report(clientTasks.size(), seconds);
+        if (printMetrics) {
+            Metrics.watch(school, loginSystem);
+            System.out.print("\n" + Metrics.dump());
+        }
+    }
+
+    // Each teacher takes the roll of every teachers-th student
+    private Runnable rollCallClient(int teacher, SplittableRandom random) {
+        int classSize = classSize(teacher);
+        long window = TimeUnit.SECONDS.toMillis(durationSeconds) / 2;
+        long think = thinkMillis >= 0 ? thinkMillis : window / Math.max(1, classSize);
+        long startDelay = window > 0 ? random.nextLong(window) : 0;
+        LocalDate today = LocalDate.now();
+
+        return () -> {
+            pause(startDelay);
+            if (!login("tea" + teacher)) return;
+            for (int s = teacher; s <= students; s += teachers) {
+                pause(thinkTime(think, random));
+                String status = ROLL_CALL_STATUSES[random.nextInt(ROLL_CALL_STATUSES.length)];
+                String studentId = "STU" + s;
+                timed(Operation.MARK_ATTENDANCE, () -> school.markAttendance(studentId, today, status, ""));
+            }
+        };
+    }
+
+    // A final exam per subject for every student in the teacher's class, as fast as possible
+    private Runnable examClient(int teacher, SplittableRandom random) {
+        long think = Math.max(0, thinkMillis);
+        String academicYear = LocalDate.now().getYear() - 1 + "-" + LocalDate.now().getYear();
+
+        return () -> {
+            if (!login("tea" + teacher)) return;
+            for (int s = teacher; s <= students; s += teachers) {
+                String studentId = "STU" + s;
+                for (String subject : SUBJECTS) {
+                    pause(thinkTime(think, random));
+                    double marks = 35 + random.nextInt(66);
+                    timed(Operation.ADD_GRADE, () -> school.addGrade(studentId, subject, "Final", marks, 100,
+                                                                      "Spring", academicYear));
+                }
+            }
+        };
+    }
+
+    private Runnable mixedClient(int client, Operation[] weighted, long deadline, SplittableRandom random) {
+        long think = thinkMillis >= 0 ? thinkMillis : 100;
+        int teacher = 1 + (client - 1) % Math.max(1, teachers);
+        LocalDate today = LocalDate.now();
+
+        return () -> {
+            if (!login("tea" + teacher)) return;
+            while (System.nanoTime() < deadline) {
+                pause(thinkTime(think, random));
+                String studentId = "STU" + (1 + random.nextInt(students));
+                switch (weighted[random.nextInt(weighted.length)]) {
+                    case LOGIN:
+                        login("tea" + teacher);
+                        break;
+                    case MARK_ATTENDANCE:
+                        timed(Operation.MARK_ATTENDANCE, () -> school.markAttendance(studentId, today, "Present", ""));
+                        break;
+                    case ADD_GRADE:
+                        timed(Operation.ADD_GRADE, () -> school.addGrade(studentId, SUBJECTS[random.nextInt(SUBJECTS.length)],
+                                "Quiz", random.nextInt(21), 20, "Spring", today.getYear() - 1 + "-" + today.getYear()));
+                        break;
+                    case VIEW_GRADES:
+                        timed(Operation.VIEW_GRADES, () -> school.getStudentGrades(studentId));
+                        break;
+                    case CALCULATE_GPA:
+                        timed(Operation.CALCULATE_GPA, () -> school.calculateOverallGPA(studentId));
+                        break;
+                    case ATTENDANCE_REPORT:
+                        timed(Operation.ATTENDANCE_REPORT, () ->
+                                school.calculateAttendancePercentage(studentId, today.minusDays(30), today));
+                        break;
+                    case SEARCH: {
+                        Student student = school.getStudent(studentId);
+                        String keyword = student != null ? student.getLastName() : "Smith";
+                        timed(Operation.SEARCH, () -> school.searchStudents(keyword));
+                        break;
+                    }
+                    case OUTSTANDING_FEES:
+                        timed(Operation.OUTSTANDING_FEES, () -> school.getStudentsWithOutstandingFees());
+                        break;
+                }
+            }
+        };
+    }
+
+    // Logs in and out again; sessions stay open in the system only as long as the call
+    private boolean login(String username) {
+        Session session = timed(Operation.LOGIN, () -> loginSystem.login(username, SampleDataGenerator.DEFAULT_PASSWORD));
+        if (session == null) return false;
+        loginSystem.logout(session.getToken());
+        return true;
+    }
+
+    private <T> T timed(Operation operation, Callable<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            latencies.get(operation).recordSince(start);
+            if (result == null || Boolean.FALSE.equals(result)) errors.get(operation).increment();
+            return result;
+        } catch (Exception e) {
+            latencies.get(operation).recordSince(start);
+            errors.get(operation).increment();
+            return null;
+        }
+    }
+
+    private int classSize(int teacher) {
+        return teacher > students ? 0 : (students - teacher) / teachers + 1;
+    }
+
+    // Exponentially distributed, like the gaps between independent users' actions
+    private static long thinkTime(long meanMillis, SplittableRandom random) {
+        if (meanMillis <= 0) return 0;
+        return (long) (-meanMillis * Math.log(1 - random.nextDouble()));
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Operations repeated by weight, so picking one is a single random index
+    private static Operation[] parseMix(String mix) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Operation operation = null;
+            for (Operation candidate : Operation.values()) {
+                if (candidate.key.equals(parts[0].trim())) operation = candidate;
+            }
+            if (operation == null || parts.length != 2) {
+                throw new IllegalArgumentException("Bad --mix entry: " + entry);
+            }
+            for (int i = Integer.parseInt(parts[1].trim()); i > 0; i--) weighted.add(operation);
+        }
+        if (weighted.isEmpty()) throw new IllegalArgumentException("--mix has no weights");
+        return weighted.toArray(new Operation[0]);
+    }
+
+    // One thread per simulated user; virtual threads (Java 21) make thousands of sleeping users cheap
+    private static ExecutorService newClientExecutor(boolean platformThreads) {
+        if (!platformThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Virtual threads need Java 21; using platform threads");
+            }
+        }
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "load-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void report(int clientCount, double seconds) {
+        long totalOps = 0;
+        long totalErrors = 0;
+        for (Operation operation : Operation.values()) {
+            totalOps += latencies.get(operation).getCount();
+            totalErrors += errors.get(operation).sum();
+        }
+
+        System.out.printf("%nScenario %s: %d clients, %d operations in %.1f s (%.1f ops/s), %d errors%n",
+                scenario, clientCount, totalOps, seconds, totalOps / seconds, totalErrors);
+        System.out.printf("%-12s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            if (histogram.getCount() == 0) continue;
+            System.out.printf("%-12s %10d %8d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                    operation.key, histogram.getCount(), errors.get(operation).sum(), histogram.getCount() / seconds,
+                    histogram.getPercentile(50) / 1e6, histogram.getPercentile(99) / 1e6,
+                    histogram.getPercentile(99.9) / 1e6, histogram.getMax() / 1e6);
+        }
+    }
+}
@@ -5,15 +5,18 @@ import java.awt.event.ActionListener;
 
 public class LoginGUI extends JDialog {
     private LoginSystem loginSystem;
+    private StartupLoader loader;
     private JTextField usernameField;
     private JPasswordField passwordField;
     private JButton loginButton;
     private JButton cancelButton;
     private boolean loginSuccessful = false;
     
-    public LoginGUI(JFrame parent, LoginSystem loginSystem) {
+    // While loader is still running, a progress bar is shown and logging in waits for the users
+    public LoginGUI(JFrame parent, LoginSystem loginSystem, StartupLoader loader) {
         super(parent, "School Management System - Login", true);
         this.loginSystem = loginSystem;
+        this.loader = loader;
         initializeGUI();
     }
     
@@ -104,9 +107,24 @@ public class LoginGUI extends JDialog {
         
         add(headerPanel, BorderLayout.NORTH);
         add(formPanel, BorderLayout.CENTER);
-        add(demoPanel, BorderLayout.SOUTH);
         
-        setSize(450, 400);
+        if (loader.isDone()) {
+            add(demoPanel, BorderLayout.SOUTH);
+        } else {
+            JPanel southPanel = new JPanel(new BorderLayout());
+            southPanel.add(demoPanel, BorderLayout.CENTER);
+            southPanel.add(loader.createProgressBar(), BorderLayout.SOUTH);
+            add(southPanel, BorderLayout.SOUTH);
+            
+            loginButton.setEnabled(loader.isUsersLoaded());
+            loader.addPropertyChangeListener(e -> {
+                if ("usersLoaded".equals(e.getPropertyName())) {
+                    loginButton.setEnabled(true);
+                }
+            });
+        }
+        
+        setSize(450, loader.isDone() ? 400 : 430);
         setLocationRelativeTo(getParent());
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         
@@ -115,6 +133,10 @@ public class LoginGUI extends JDialog {
     }
     
     private void performLogin() {
+        if (!loader.isUsersLoaded()) {
+            return; // Enter pressed before the users finished loading
+        }
+        
         String username = usernameField.getText().trim();
         String password = new String(passwordField.getPassword());
         
@@ -1,76 +1,226 @@
+import java.security.SecureRandom;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
+// Users and sessions. Any number of sessions can be open at once (the API server
+// holds one per client); the desktop application uses the "current" session.
 public class LoginSystem {
+    public static final long DEFAULT_SESSION_TIMEOUT_MINUTES = 30;
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000;
+    
+    // Authentication outcomes and session lifecycle, see Metrics
+    private static final LatencyHistogram LOGIN_TIMER = Metrics.timer("auth.login");
+    private static final LongAdder ACCEPTED = Metrics.counter("auth.credentials.accepted");
+    private static final LongAdder UNKNOWN_USER = Metrics.counter("auth.credentials.unknownUser");
+    private static final LongAdder BAD_PASSWORD = Metrics.counter("auth.credentials.badPassword");
+    private static final LongAdder INACTIVE_USER = Metrics.counter("auth.credentials.inactiveUser");
+    private static final LongAdder SESSIONS_OPENED = Metrics.counter("auth.sessions.opened");
+    private static final LongAdder SESSIONS_LOGGED_OUT = Metrics.counter("auth.sessions.loggedOut");
+    private static final LongAdder SESSIONS_EXPIRED = Metrics.counter("auth.sessions.expired");
+    private static final String OUTCOME_ACCEPTED = "accepted";
+    
     private Map<String, User> users;
-    private User currentUser;
+    private final ReentrantLock addUserLock = new ReentrantLock(); // not a monitor: addUser waits on the journal
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final RolePermissions rolePermissions = new RolePermissions();
+    private final SecureRandom random = new SecureRandom();
+    private final long sessionTimeoutMillis;
+    private volatile long lastSweep;
+    private volatile Session currentSession;
+    private volatile Journal journal; // optional write-ahead log of every change
+    private List<DataChangeListener> changeListeners = new java.util.concurrent.CopyOnWriteArrayList<>();
     
     public LoginSystem() {
-        users = new HashMap<>();
-        currentUser = null;
+        users = new ConcurrentHashMap<>(); // read by API request threads
+        currentSession = null;
+        sessionTimeoutMillis = Long.getLong("school.sessionTimeoutMinutes", DEFAULT_SESSION_TIMEOUT_MINUTES) * 60_000;
         createDefaultUsers();
     }
     
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+    
+    public void addChangeListener(DataChangeListener listener) {
+        changeListeners.add(listener);
+    }
+    
+    public void removeChangeListener(DataChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+    
+    // Before journaling, like SchoolManagementSystem.dataChanged, so autosave never
+    // drops a journaled user change that its save did not include
+    private void fireUsersChanged() {
+        for (DataChangeListener listener : changeListeners) {
+            listener.dataChanged(DataSet.USERS);
+        }
+    }
+    
     private void createDefaultUsers() {
         // Default admin user only
         addUser("admin", "admin123", "Admin", "System Administrator", "admin@school.edu", "");
     }
     
+    // Locked so concurrent callers get distinct user IDs
     public String addUser(String username, String password, String role, String fullName, 
                          String email, String associatedId) {
-        String userId = "USR" + (users.size() + 1000);
-        User user = new User(userId, username, password, role, fullName, email, associatedId);
-        users.put(username, user);
-        return userId;
+        addUserLock.lock();
+        try {
+            String userId = "USR" + (users.size() + 1000);
+            User user = new User(userId, username, password, role, fullName, email, associatedId);
+            users.put(username, user);
+            fireUsersChanged();
+            if (journal != null) journal.logUser(user);
+            return userId;
+        } finally {
+            addUserLock.unlock();
+        }
     }
     
+    // Desktop login: opens a session and makes it the current one
     public boolean authenticate(String username, String password) {
-        User user = users.get(username);
-        if (user != null && user.getPassword().equals(password) && user.isActive()) {
-            currentUser = user;
+        Session session = login(username, password);
+        if (session != null) {
+            Session previous = currentSession;
+            currentSession = session;
+            if (previous != null) logout(previous.getToken());
             return true;
         }
         return false;
     }
     
+    // Checks a login without opening a session; null if it is not valid
+    public User verifyCredentials(String username, String password) {
+        User user = users.get(username);
+        return OUTCOME_ACCEPTED.equals(checkCredentials(user, password)) ? user : null;
+    }
+    
+    // Counts the outcome in Metrics and returns it, as named in the Login flight event
+    private String checkCredentials(User user, String password) {
+        if (user == null) {
+            UNKNOWN_USER.increment();
+            return "unknownUser";
+        }
+        if (!user.getPassword().equals(password)) {
+            BAD_PASSWORD.increment();
+            return "badPassword";
+        }
+        if (!user.isActive()) {
+            INACTIVE_USER.increment();
+            return "inactiveUser";
+        }
+        ACCEPTED.increment();
+        return OUTCOME_ACCEPTED;
+    }
+    
+    // Opens a new session, or returns null if the login is not valid
+    public Session login(String username, String password) {
+        long start = System.nanoTime();
+        FlightEvents.Login event = new FlightEvents.Login();
+        event.begin();
+        try {
+            User user = users.get(username);
+            String outcome = checkCredentials(user, password);
+            if (!outcome.equals(OUTCOME_ACCEPTED)) {
+                event.end(username, outcome, sessions.size());
+                return null;
+            }
+            
+            expireIdleSessions();
+            byte[] bytes = new byte[32];
+            random.nextBytes(bytes);
+            String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+            Session session = new Session(token, user, rolePermissions.maskFor(user.getRole()));
+            sessions.put(token, session);
+            SESSIONS_OPENED.increment();
+            event.end(username, outcome, sessions.size());
+            return session;
+        } finally {
+            LOGIN_TIMER.recordSince(start);
+        }
+    }
+    
+    // The live session for token, or null if it is unknown, idle too long or its user
+    // was deactivated. Counts as activity on the session.
+    public Session getSession(String token) {
+        if (token == null) return null;
+        Session session = sessions.get(token);
+        if (session == null) return null;
+        
+        long now = System.currentTimeMillis();
+        if (session.isIdle(now, sessionTimeoutMillis) || !session.getUser().isActive()) {
+            if (sessions.remove(token, session)) SESSIONS_EXPIRED.increment();
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+    
+    public boolean logout(String token) {
+        if (token == null || sessions.remove(token) == null) return false;
+        SESSIONS_LOGGED_OUT.increment();
+        return true;
+    }
+    
     public void logout() {
-        currentUser = null;
+        Session session = currentSession;
+        currentSession = null;
+        if (session != null) logout(session.getToken());
+    }
+    
+    public int getSessionCount() {
+        return sessions.size();
+    }
+    
+    public int getUserCount() {
+        return users.size();
+    }
+    
+    // Full scans are rate-limited; getSession() also drops idle sessions it finds
+    private void expireIdleSessions() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep < SWEEP_INTERVAL_MILLIS) return;
+        lastSweep = now;
+        sessions.values().removeIf(session -> {
+            if (!session.isIdle(now, sessionTimeoutMillis)) return false;
+            SESSIONS_EXPIRED.increment();
+            return true;
+        });
+    }
+    
+    private void endSessionsOf(String username) {
+        sessions.values().removeIf(session -> session.getUser().getUsername().equals(username));
+    }
+    
+    public Session getCurrentSession() {
+        return currentSession;
     }
     
     public User getCurrentUser() {
-        return currentUser;
+        Session session = currentSession;
+        return session != null ? session.getUser() : null;
     }
     
     public boolean isLoggedIn() {
-        return currentUser != null;
+        return currentSession != null;
     }
     
-    public boolean hasPermission(String permission) {
-        if (currentUser == null) return false;
-        
-        String role = currentUser.getRole();
-        
-        switch (permission) {
-            case "MANAGE_STUDENTS":
-                return role.equals("Admin");
-            case "MANAGE_TEACHERS":
-                return role.equals("Admin");
-            case "MANAGE_GRADES":
-                return role.equals("Admin") || role.equals("Teacher");
-            case "VIEW_GRADES":
-                return true; // All roles can view grades (filtered by access)
-            case "MANAGE_ATTENDANCE":
-                return role.equals("Admin") || role.equals("Teacher");
-            case "VIEW_ATTENDANCE":
-                return true; // All roles can view attendance (filtered by access)
-            case "MANAGE_FEES":
-                return role.equals("Admin");
-            case "VIEW_FEES":
-                return role.equals("Admin") || role.equals("Parent");
-            case "VIEW_OWN_DATA":
-                return role.equals("Student") || role.equals("Parent");
-            default:
-                return false;
-        }
+    public boolean hasPermission(Permission permission) {
+        Session session = currentSession;
+        return session != null && session.hasPermission(permission);
+    }
+    
+    // For callers without a session; sessions cache the mask instead
+    public boolean hasPermission(User user, Permission permission) {
+        return user != null && (rolePermissions.maskFor(user.getRole()) & permission.bit()) != 0;
+    }
+    
+    // Role definitions; custom roles added here apply to sessions opened afterwards
+    public RolePermissions getRolePermissions() {
+        return rolePermissions;
     }
     
     public List<User> getAllUsers() {
@@ -81,13 +231,21 @@ public class LoginSystem {
         User user = users.get(username);
         if (user != null && user.getPassword().equals(oldPassword)) {
             user.setPassword(newPassword);
+            fireUsersChanged();
+            if (journal != null) journal.logUser(user);
             return true;
         }
         return false;
     }
     
     public boolean removeUser(String username) {
-        return users.remove(username) != null;
+        if (users.remove(username) != null) {
+            endSessionsOf(username);
+            fireUsersChanged();
+            if (journal != null) journal.logUserRemoved(username);
+            return true;
+        }
+        return false;
     }
     
     public User getUser(String username) {
@@ -96,5 +254,6 @@ public class LoginSystem {
     
     public void addExistingUser(User user) {
         users.put(user.getUsername(), user);
+        fireUsersChanged();
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Process-wide registry of named counters, gauges and latency timers, using only the JDK.
+// Instrumented classes look their metrics up once into static fields, so recording
+// is an add on a LongAdder or a LatencyHistogram and never touches the registry.
+//
+// Names are dotted: "school.addGrade", "auth.login.badPassword",
+// "persistence.load.grades.bin.rows". The registry can be read over JMX
+// (OBJECT_NAME, e.g. in JConsole) or as text from dump(), which is also printed
+// every -Dschool.metrics.dumpIntervalSeconds when that is set.
+public class Metrics {
+    public static final String OBJECT_NAME = "schoolmanagement:type=Metrics";
+
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService dumper;
+
+    private Metrics() {
+    }
+
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    // Durations in nanoseconds
+    public static LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    // Read whenever metrics are reported; replaces an earlier gauge of the same name
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    // Size gauges for the running system
+    public static void watch(SchoolManagementSystem school, LoginSystem loginSystem) {
+        gauge("school.students", school::getStudentCount);
+        gauge("school.teachers", school::getTeacherCount);
+        gauge("school.grades", school::getGradeCount);
+        gauge("school.attendance", school::getAttendanceCount);
+        gauge("auth.users", loginSystem::getUserCount);
+        gauge("auth.sessions", loginSystem::getSessionCount);
+    }
+
+    public static Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    public static Map<String, Long> gaugeValues() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        return values;
+    }
+
+    // Timers that have recorded something, summarised in microseconds
+    public static Map<String, String> latencySummaries() {
+        Map<String, String> values = new TreeMap<>();
+        timers.forEach((name, timer) -> {
+            if (timer.getCount() > 0) values.put(name, timer.summary(TimeUnit.MICROSECONDS));
+        });
+        return values;
+    }
+
+    // One metric per line, sorted by name within counters, gauges and latencies
+    public static String dump() {
+        StringBuilder text = new StringBuilder();
+        counterValues().forEach((name, value) -> text.append(name).append(' ').append(value).append('\n'));
+        gaugeValues().forEach((name, value) -> text.append(name).append(' ').append(value).append('\n'));
+        latencySummaries().forEach((name, value) -> text.append(name).append(' ').append(value).append('\n'));
+        return text.toString();
+    }
+
+    public static void reset() {
+        counters.values().forEach(LongAdder::reset);
+        timers.values().forEach(LatencyHistogram::reset);
+    }
+
+    public static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Registered by an earlier call
+        } catch (JMException e) {
+            System.err.println("Error registering metrics MBean: " + e.getMessage());
+        }
+    }
+
+    // Prints dump() to standard output every -Dschool.metrics.dumpIntervalSeconds, if set
+    public static synchronized void startConfiguredDump() {
+        long seconds = Long.getLong("school.metrics.dumpIntervalSeconds", 0);
+        if (seconds <= 0 || dumper != null) return;
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> System.out.print("--- metrics ---\n" + dump()),
+                                   seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    private static class Bean implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            return counterValues();
+        }
+
+        @Override
+        public Map<String, Long> getGauges() {
+            return gaugeValues();
+        }
+
+        @Override
+        public Map<String, String> getLatencies() {
+            return latencySummaries();
+        }
+
+        @Override
+        public String getDump() {
+            return dump();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+import java.util.Map;
+
+// JMX view of the Metrics registry, registered as Metrics.OBJECT_NAME.
+// Latencies are summaries in microseconds, as in the text dump.
+public interface MetricsMXBean {
+    Map<String, Long> getCounters();
+
+    Map<String, Long> getGauges();
+
+    Map<String, String> getLatencies();
+
+    String getDump();
+
+    // Zeroes counters and latencies; gauges always show the current value
+    void reset();
+}
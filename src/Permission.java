@@ -0,0 +1,26 @@
+// Actions a role can be allowed to perform. Each permission is one bit of a role's mask.
+public enum Permission {
+    MANAGE_STUDENTS,
+    MANAGE_TEACHERS,
+    MANAGE_GRADES,
+    VIEW_GRADES,
+    MANAGE_ATTENDANCE,
+    VIEW_ATTENDANCE,
+    MANAGE_FEES,
+    VIEW_FEES,
+    VIEW_OWN_DATA;
+    
+    private final long bit = 1L << ordinal();
+    
+    public long bit() {
+        return bit;
+    }
+    
+    public static long maskOf(Permission... permissions) {
+        long mask = 0;
+        for (Permission permission : permissions) {
+            mask |= permission.bit;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,27 @@
+// The built-in roles and what they may do. Users store the role by its display
+// name ("Admin", "Teacher", ...). Custom roles are added through RolePermissions.
+public enum Role {
+    ADMIN("Admin", Permission.maskOf(
+            Permission.MANAGE_STUDENTS, Permission.MANAGE_TEACHERS, Permission.MANAGE_GRADES,
+            Permission.VIEW_GRADES, Permission.MANAGE_ATTENDANCE, Permission.VIEW_ATTENDANCE,
+            Permission.MANAGE_FEES, Permission.VIEW_FEES)),
+    TEACHER("Teacher", Permission.maskOf(
+            Permission.MANAGE_GRADES, Permission.VIEW_GRADES,
+            Permission.MANAGE_ATTENDANCE, Permission.VIEW_ATTENDANCE)),
+    STUDENT("Student", Permission.maskOf(
+            Permission.VIEW_GRADES, Permission.VIEW_ATTENDANCE, Permission.VIEW_OWN_DATA)),
+    PARENT("Parent", Permission.maskOf(
+            Permission.VIEW_GRADES, Permission.VIEW_ATTENDANCE, Permission.VIEW_FEES,
+            Permission.VIEW_OWN_DATA));
+    
+    private final String displayName;
+    private final long permissions;
+    
+    Role(String displayName, long permissions) {
+        this.displayName = displayName;
+        this.permissions = permissions;
+    }
+    
+    public String getDisplayName() { return displayName; }
+    public long getPermissions() { return permissions; }
+}
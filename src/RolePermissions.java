@@ -0,0 +1,71 @@
+import java.io.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Role name -> permission mask. Starts with the built-in roles; more roles (or new
+// masks for built-in ones) can be loaded from a text file with one role per line:
+//
+//   Librarian|VIEW_GRADES,VIEW_ATTENDANCE
+//
+// Roles that are not registered may only view grades and attendance.
+public class RolePermissions {
+    private static final long UNKNOWN_ROLE_MASK = Permission.maskOf(Permission.VIEW_GRADES, Permission.VIEW_ATTENDANCE);
+    
+    private final Map<String, Long> masks = new ConcurrentHashMap<>();
+    
+    public RolePermissions() {
+        for (Role role : Role.values()) {
+            masks.put(role.getDisplayName(), role.getPermissions());
+        }
+    }
+    
+    public long maskFor(String role) {
+        if (role == null) return 0;
+        Long mask = masks.get(role);
+        return mask != null ? mask : UNKNOWN_ROLE_MASK;
+    }
+    
+    public void define(String role, long mask) {
+        masks.put(role, mask);
+    }
+    
+    public boolean isDefined(String role) {
+        return masks.containsKey(role);
+    }
+    
+    // Returns the number of roles read. Bad lines are reported and skipped.
+    public int load(File file) throws IOException {
+        int loaded = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                
+                String[] parts = line.split("\\|", -1);
+                if (parts.length != 2 || parts[0].trim().isEmpty()) {
+                    System.err.println("Skipping invalid role line: " + line);
+                    continue;
+                }
+                try {
+                    define(parts[0].trim(), parseMask(parts[1]));
+                    loaded++;
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping role " + parts[0].trim() + ": " + e.getMessage());
+                }
+            }
+        }
+        return loaded;
+    }
+    
+    private static long parseMask(String list) {
+        long mask = 0;
+        for (String name : list.split(",")) {
+            name = name.trim();
+            if (!name.isEmpty()) {
+                mask |= Permission.valueOf(name).bit();
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,289 @@
+import java.io.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+// Synthetic school data for load and scale tests: students, teachers, grades over
+// several academic years, a school day's attendance for every student, fees with
+// payments, and optional login accounts. Names, phone numbers and addresses are made
+// up from fixed lists, so no real personal data is involved.
+//
+// The same settings and seed always produce the same records. Teachers and each
+// student draw from their own random streams, split off in order, so the same
+// students come out whatever the number of teachers.
+//
+// Records go to a Sink: straight into a SchoolManagementSystem, or streamed to the
+// pipe-delimited text files, which is the only way to produce more data than fits
+// in memory. Usage:
+//   java SampleDataGenerator [--students N] [--teachers N] [--years N] [--days N]
+//                            [--first-year YYYY] [--seed N] [--no-users] [--dir DIR]
+public class SampleDataGenerator {
+    public static final String DEFAULT_PASSWORD = "password123";
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Amara", "Chen", "Fatima", "Hiroshi", "Ingrid", "Kwame", "Lucia", "Mateo", "Priya", "Yusuf",
+        "Aisha", "Bjorn", "Camila", "Dmitri", "Emeka", "Freya", "Gabriel", "Hana", "Ivan", "Jia"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Okafor", "Nakamura", "Kowalski", "Haddad", "Lindqvist", "Mensah", "Rossi", "Novak", "Patel", "Yilmaz",
+        "Silva", "Kim", "Nguyen", "Ivanova", "Dubois", "Schmidt", "Ahmed", "Costa", "Fischer", "Ali"
+    };
+    private static final String[] STREETS = {
+        "Oak Street", "Maple Avenue", "Cedar Lane", "Pine Road", "Elm Street", "Lakeview Drive", "Hill Road", "Park Avenue"
+    };
+    private static final String[] SUBJECTS = {
+        "Mathematics", "English", "Science", "History", "Geography", "Physics", "Chemistry", "Biology"
+    };
+    private static final String[] EXAM_TYPES = {"Quiz", "Assignment", "Midterm", "Final", "Project"};
+    private static final String[] SEMESTERS = {"Fall", "Spring"};
+    private static final String[] QUALIFICATIONS = {"B.Ed", "M.Ed", "M.Sc", "M.A", "PhD"};
+
+    private int students = 1000;
+    private int teachers = -1; // one per 20 students unless set
+    private int years = 1;
+    private int schoolDaysPerYear = 180;
+    private int firstYear = 2024;
+    private int subjectsPerStudent = 6;
+    private int examsPerSubjectPerTerm = 2;
+    private boolean userAccounts = true;
+    private long seed = 42;
+
+    // Receives the generated records. Teachers come first, then each student followed
+    // by their grades and attendance, then the login accounts.
+    public interface Sink {
+        void teacher(Teacher teacher) throws IOException;
+        void student(Student student) throws IOException;
+        void grade(Grade grade) throws IOException;
+        void attendance(Attendance attendance) throws IOException;
+        void user(User user) throws IOException;
+    }
+
+    public SampleDataGenerator students(int students) { this.students = students; return this; }
+    public SampleDataGenerator teachers(int teachers) { this.teachers = teachers; return this; }
+    public SampleDataGenerator years(int years) { this.years = years; return this; }
+    public SampleDataGenerator schoolDaysPerYear(int days) { this.schoolDaysPerYear = days; return this; }
+    public SampleDataGenerator firstYear(int firstYear) { this.firstYear = firstYear; return this; }
+    public SampleDataGenerator subjectsPerStudent(int subjects) { this.subjectsPerStudent = Math.min(subjects, SUBJECTS.length); return this; }
+    public SampleDataGenerator examsPerSubjectPerTerm(int exams) { this.examsPerSubjectPerTerm = exams; return this; }
+    public SampleDataGenerator userAccounts(boolean userAccounts) { this.userAccounts = userAccounts; return this; }
+    public SampleDataGenerator seed(long seed) { this.seed = seed; return this; }
+
+    // Adds the generated records to school and loginSystem as if they had been loaded
+    public void populate(SchoolManagementSystem school, LoginSystem loginSystem) {
+        try {
+            generate(new Sink() {
+                public void teacher(Teacher teacher) { school.addExistingTeacher(teacher); }
+                public void student(Student student) { school.addExistingStudent(student); }
+                public void grade(Grade grade) { school.addExistingGrade(grade); }
+                public void attendance(Attendance attendance) { school.addExistingAttendance(attendance); }
+                public void user(User user) { loginSystem.addExistingUser(user); }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // the sink above never throws
+        }
+    }
+
+    // Streams the records into the text files read by DataPersistence.importTextData.
+    // A data directory holding only these files is converted to a binary snapshot on first load.
+    public void writeTextFiles(String dirName) throws IOException {
+        File dir = new File(dirName);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+
+        try (PrintWriter teacherOut = textWriter(dir, DataPersistence.TEACHERS_FILE);
+             PrintWriter studentOut = textWriter(dir, DataPersistence.STUDENTS_FILE);
+             PrintWriter gradeOut = textWriter(dir, DataPersistence.GRADES_FILE);
+             PrintWriter attendanceOut = textWriter(dir, DataPersistence.ATTENDANCE_FILE);
+             PrintWriter userOut = textWriter(dir, DataPersistence.USERS_FILE)) {
+            // The admin account LoginSystem creates when there is no saved user
+            userOut.println(DataPersistence.formatUser(new User("USR1000", "admin", "admin123", "Admin",
+                    "System Administrator", "admin@school.edu", "")));
+
+            generate(new Sink() {
+                public void teacher(Teacher teacher) { teacherOut.println(DataPersistence.formatTeacher(teacher)); }
+                public void student(Student student) { studentOut.println(DataPersistence.formatStudent(student)); }
+                public void grade(Grade grade) { gradeOut.println(DataPersistence.formatGrade(grade)); }
+                public void attendance(Attendance attendance) { attendanceOut.println(DataPersistence.formatAttendance(attendance)); }
+                public void user(User user) { userOut.println(DataPersistence.formatUser(user)); }
+            });
+
+            for (PrintWriter out : new PrintWriter[] {teacherOut, studentOut, gradeOut, attendanceOut, userOut}) {
+                if (out.checkError()) throw new IOException("Error writing generated data to " + dirName);
+            }
+        }
+    }
+
+    private static PrintWriter textWriter(File dir, String fileName) throws IOException {
+        return new PrintWriter(new BufferedWriter(new FileWriter(new File(dir, fileName)), 1 << 16));
+    }
+
+    public void generate(Sink sink) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        SplittableRandom teacherRandom = random.split();
+        SplittableRandom studentRandom = random.split();
+        int teacherCount = teachers >= 0 ? teachers : Math.max(1, students / 20);
+        long nextUser = 1001; // USR1000 is the default admin
+
+        for (int i = 1; i <= teacherCount; i++) {
+            sink.teacher(generateTeacher("TEA" + i, teacherRandom.split()));
+        }
+
+        long gradeId = 0;
+        long attendanceId = 0;
+        LocalDate[][] schoolDays = schoolDays();
+        for (int i = 1; i <= students; i++) {
+            SplittableRandom own = studentRandom.split();
+            String studentId = "STU" + i;
+            int level = 1 + own.nextInt(12); // grade level in the first year
+            Student student = generateStudent(studentId, level, own);
+
+            // Fees for every year; most families pay in full, the rest fall behind by a varying amount
+            double feesTotal = 0;
+            for (int year = 0; year < years; year++) {
+                double yearlyFee = 4000 + 250 * Math.min(12, level + year);
+                feesTotal += yearlyFee;
+                double paidShare = own.nextInt(10) < 7 ? 1.0 : own.nextDouble();
+                int installments = 1 + own.nextInt(4);
+                for (int n = 0; n < installments; n++) {
+                    student.addFeePayment(Math.round(yearlyFee * paidShare / installments * 100) / 100.0);
+                }
+            }
+            student.setFeesTotal(feesTotal);
+            if (level + years - 1 > 12) student.setStatus("Graduated");
+            else if (own.nextInt(50) == 0) student.setStatus("Inactive");
+            sink.student(student);
+
+            // Marks and attendance cluster around each student's own ability and habits
+            double ability = clamp(72 + own.nextGaussian() * 12, 30, 98);
+            double absenceRate = 0.01 + own.nextDouble() * own.nextDouble() * 0.12;
+            double lateRate = 0.01 + own.nextDouble() * 0.05;
+            int firstSubject = own.nextInt(SUBJECTS.length);
+
+            for (int year = 0; year < years; year++) {
+                String academicYear = (firstYear + year) + "-" + (firstYear + year + 1);
+                for (String semester : SEMESTERS) {
+                    for (int s = 0; s < subjectsPerStudent; s++) {
+                        String subject = SUBJECTS[(firstSubject + s) % SUBJECTS.length];
+                        for (int e = 0; e < examsPerSubjectPerTerm; e++) {
+                            String examType = EXAM_TYPES[own.nextInt(EXAM_TYPES.length)];
+                            double total = examType.equals("Quiz") ? 20 : 100;
+                            double marks = Math.round(clamp(ability + own.nextGaussian() * 10, 0, 100) * total) / 100.0;
+                            sink.grade(new Grade("GRD" + (++gradeId), studentId, subject, examType,
+                                                 marks, total, semester, academicYear));
+                        }
+                    }
+                }
+
+                for (LocalDate day : schoolDays[year]) {
+                    double roll = own.nextDouble();
+                    String status;
+                    String remarks = "";
+                    if (roll < absenceRate) {
+                        status = own.nextInt(3) == 0 ? "Excused" : "Absent";
+                        if (status.equals("Excused")) remarks = own.nextBoolean() ? "Sick" : "Family";
+                    } else if (roll < absenceRate + lateRate) {
+                        status = "Late";
+                    } else {
+                        status = "Present";
+                    }
+                    sink.attendance(new Attendance("ATT" + (++attendanceId), studentId, day, status, remarks));
+                }
+            }
+        }
+
+        if (userAccounts) {
+            // One account per teacher and per student, named after the record's ID
+            for (int i = 1; i <= teacherCount; i++) {
+                String teacherId = "TEA" + i;
+                sink.user(new User("USR" + nextUser++, teacherId.toLowerCase(), DEFAULT_PASSWORD, "Teacher",
+                                   "Teacher " + i, teacherId.toLowerCase() + "@school.edu", teacherId));
+            }
+            for (int i = 1; i <= students; i++) {
+                String studentId = "STU" + i;
+                sink.user(new User("USR" + nextUser++, studentId.toLowerCase(), DEFAULT_PASSWORD, "Student",
+                                   "Student " + i, studentId.toLowerCase() + "@school.edu", studentId));
+            }
+        }
+    }
+
+    private Teacher generateTeacher(String teacherId, SplittableRandom random) {
+        String firstName = pick(FIRST_NAMES, random);
+        String lastName = pick(LAST_NAMES, random);
+        return new Teacher(teacherId, firstName, lastName,
+                (firstName + "." + lastName + "." + teacherId).toLowerCase() + "@school.edu",
+                phone(random), pick(SUBJECTS, random), pick(QUALIFICATIONS, random),
+                Math.round(38000 + random.nextDouble() * 40000), address(random));
+    }
+
+    private Student generateStudent(String studentId, int level, SplittableRandom random) {
+        String firstName = pick(FIRST_NAMES, random);
+        String lastName = pick(LAST_NAMES, random);
+        String parentFirstName = pick(FIRST_NAMES, random);
+        LocalDate birthday = LocalDate.of(firstYear - 6 - level, 9, 1).plusDays(random.nextInt(365));
+        return new Student(studentId, firstName, lastName, birthday,
+                random.nextBoolean() ? "Male" : "Female", String.valueOf(level),
+                parentFirstName + " " + lastName, phone(random),
+                (parentFirstName + "." + lastName + "." + studentId).toLowerCase() + "@example.com",
+                address(random));
+    }
+
+    // The first schoolDaysPerYear weekdays from September 1 of each academic year
+    LocalDate[][] schoolDays() {
+        LocalDate[][] days = new LocalDate[years][];
+        for (int year = 0; year < years; year++) {
+            days[year] = new LocalDate[schoolDaysPerYear];
+            LocalDate day = LocalDate.of(firstYear + year, 9, 1);
+            for (int n = 0; n < schoolDaysPerYear; day = day.plusDays(1)) {
+                if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                    days[year][n++] = day;
+                }
+            }
+        }
+        return days;
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String phone(SplittableRandom random) {
+        return "555-" + (100 + random.nextInt(900)) + "-" + (1000 + random.nextInt(9000));
+    }
+
+    private static String address(SplittableRandom random) {
+        return (1 + random.nextInt(999)) + " " + pick(STREETS, random);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    public static void main(String[] args) throws IOException {
+        SampleDataGenerator generator = new SampleDataGenerator();
+        String dir = "generated_data";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--students": generator.students(Integer.parseInt(args[++i])); break;
+                case "--teachers": generator.teachers(Integer.parseInt(args[++i])); break;
+                case "--years": generator.years(Integer.parseInt(args[++i])); break;
+                case "--days": generator.schoolDaysPerYear(Integer.parseInt(args[++i])); break;
+                case "--first-year": generator.firstYear(Integer.parseInt(args[++i])); break;
+                case "--seed": generator.seed(Long.parseLong(args[++i])); break;
+                case "--no-users": generator.userAccounts(false); break;
+                case "--dir": dir = args[++i]; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        generator.writeTextFiles(dir);
+        System.out.println("Generated data in " + dir + " (" + (System.currentTimeMillis() - start) + " ms)");
+    }
+}
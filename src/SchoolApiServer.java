@@ -0,0 +1,596 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Headless HTTP/JSON API over SchoolManagementSystem. Each request runs on its own
+// virtual thread when the JDK has them (a cached thread pool otherwise).
+//
+// Clients POST /api/login and send the returned session token as
+// "Authorization: Bearer <token>". Permissions are the same as in the desktop
+// application, and Student and Parent accounts only see their own student's records.
+public class SchoolApiServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final SchoolManagementSystem school;
+    private final LoginSystem loginSystem;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public SchoolApiServer(SchoolManagementSystem school, LoginSystem loginSystem, int port) throws IOException {
+        this.school = school;
+        this.loginSystem = loginSystem;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+
+        server.createContext("/api/login", route(this::handleLogin));
+        server.createContext("/api/logout", route(this::handleLogout));
+        server.createContext("/api/students", route(this::handleStudents));
+        server.createContext("/api/teachers", route(this::handleTeachers));
+        server.createContext("/api/grades", route(this::handleGrades));
+        server.createContext("/api/attendance", route(this::handleAttendance));
+        server.createContext("/api/fees", route(this::handleFees));
+    }
+
+    // Virtual threads need Java 21; looked up reflectively so the code still builds on older JDKs
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "api-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("School API listening on port " + getPort());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Stops accepting requests and waits up to delaySeconds for running ones to finish
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    // Handlers
+
+    private Object handleLogin(Request request) {
+        request.requireMethod("POST");
+        Map<String, String> body = request.body();
+        Session session = loginSystem.login(request.required(body, "username"), request.required(body, "password"));
+        if (session == null) {
+            throw new ApiException(401, "Invalid username or password");
+        }
+
+        User user = session.getUser();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("token", session.getToken());
+        result.put("userId", user.getUserId());
+        result.put("role", user.getRole());
+        result.put("fullName", user.getFullName());
+        result.put("associatedId", user.getAssociatedId());
+        return result;
+    }
+
+    private Object handleLogout(Request request) {
+        request.requireMethod("POST");
+        if (!loginSystem.logout(request.token())) {
+            throw new ApiException(401, "Not logged in");
+        }
+        return message("Logged out");
+    }
+
+    // /api/students, /api/students/{id}, /api/students/{id}/gpa. Student records hold
+    // contact details and addresses, so reading them needs MANAGE_STUDENTS like the
+    // Students tab; students and parents get their GPA, grades and fees elsewhere.
+    private Object handleStudents(Request request) {
+        Session session = authenticate(request);
+        String[] path = request.pathAfter("/api/students");
+
+        if (path.length == 0) {
+            if (request.isMethod("GET")) {
+                requirePermission(session, Permission.MANAGE_STUDENTS);
+                return toJsonList(school.getAllStudents(), this::studentJson);
+            }
+            request.requireMethod("POST");
+            requirePermission(session, Permission.MANAGE_STUDENTS);
+            Map<String, String> body = request.body();
+            String studentId = school.addStudent(request.required(body, "firstName"), request.required(body, "lastName"),
+                    request.date(body, "dateOfBirth"), request.required(body, "gender"), request.required(body, "grade"),
+                    body.getOrDefault("parentName", ""), body.getOrDefault("parentPhone", ""),
+                    body.getOrDefault("parentEmail", ""), body.getOrDefault("address", ""));
+            return studentJson(school.getStudent(studentId));
+        }
+
+        String studentId = path[0];
+        checkStudentAccess(session.getUser(), studentId);
+        if (path.length == 2 && path[1].equals("gpa")) {
+            request.requireMethod("GET");
+            requirePermission(session, Permission.VIEW_GRADES);
+            requireStudent(studentId);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("studentId", studentId);
+            result.put("overallGpa", school.calculateOverallGPA(studentId));
+            return result;
+        }
+        if (path.length != 1) throw new ApiException(404, "Not found");
+
+        switch (request.method()) {
+            case "GET":
+                requirePermission(session, Permission.MANAGE_STUDENTS);
+                return studentJson(requireStudent(studentId));
+            case "PUT": {
+                requirePermission(session, Permission.MANAGE_STUDENTS);
+                Student student = requireStudent(studentId);
+                Map<String, String> body = request.body();
+                school.updateStudent(studentId,
+                        body.getOrDefault("firstName", student.getFirstName()),
+                        body.getOrDefault("lastName", student.getLastName()),
+                        body.getOrDefault("grade", student.getGrade()),
+                        body.getOrDefault("parentName", student.getParentName()),
+                        body.getOrDefault("parentPhone", student.getParentPhone()),
+                        body.getOrDefault("parentEmail", student.getParentEmail()),
+                        body.getOrDefault("address", student.getAddress()));
+                return studentJson(student);
+            }
+            case "DELETE":
+                requirePermission(session, Permission.MANAGE_STUDENTS);
+                if (!school.removeStudent(studentId)) throw new ApiException(404, "Student not found: " + studentId);
+                return message("Student removed");
+            default:
+                throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    // /api/teachers, /api/teachers/{id}
+    private Object handleTeachers(Request request) {
+        Session session = authenticate(request);
+        requirePermission(session, Permission.MANAGE_TEACHERS);
+        String[] path = request.pathAfter("/api/teachers");
+
+        if (path.length == 0) {
+            if (request.isMethod("GET")) return toJsonList(school.getAllTeachers(), this::teacherJson);
+            request.requireMethod("POST");
+            Map<String, String> body = request.body();
+            String teacherId = school.addTeacher(request.required(body, "firstName"), request.required(body, "lastName"),
+                    body.getOrDefault("email", ""), body.getOrDefault("phone", ""), request.required(body, "subject"),
+                    body.getOrDefault("qualification", ""), request.number(body, "salary", 0),
+                    body.getOrDefault("address", ""));
+            return teacherJson(school.getTeacher(teacherId));
+        }
+        if (path.length != 1) throw new ApiException(404, "Not found");
+
+        String teacherId = path[0];
+        Teacher teacher = school.getTeacher(teacherId);
+        if (teacher == null) throw new ApiException(404, "Teacher not found: " + teacherId);
+        switch (request.method()) {
+            case "GET":
+                return teacherJson(teacher);
+            case "PUT": {
+                Map<String, String> body = request.body();
+                school.updateTeacher(teacherId,
+                        body.getOrDefault("firstName", teacher.getFirstName()),
+                        body.getOrDefault("lastName", teacher.getLastName()),
+                        body.getOrDefault("email", teacher.getEmail()),
+                        body.getOrDefault("phone", teacher.getPhone()),
+                        body.getOrDefault("subject", teacher.getSubject()),
+                        body.getOrDefault("qualification", teacher.getQualification()),
+                        request.number(body, "salary", teacher.getSalary()),
+                        body.getOrDefault("address", teacher.getAddress()));
+                return teacherJson(teacher);
+            }
+            case "DELETE":
+                if (!school.removeTeacher(teacherId)) throw new ApiException(404, "Teacher not found: " + teacherId);
+                return message("Teacher removed");
+            default:
+                throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    // GET /api/grades[?studentId=], POST /api/grades
+    private Object handleGrades(Request request) {
+        Session session = authenticate(request);
+        if (request.pathAfter("/api/grades").length != 0) throw new ApiException(404, "Not found");
+
+        if (request.isMethod("GET")) {
+            requirePermission(session, Permission.VIEW_GRADES);
+            String studentId = studentFilter(session.getUser(), request.query("studentId"));
+            List<Grade> grades = studentId != null ? school.getStudentGrades(studentId) : school.getAllGrades();
+            return toJsonList(grades, this::gradeJson);
+        }
+        request.requireMethod("POST");
+        requirePermission(session, Permission.MANAGE_GRADES);
+        Map<String, String> body = request.body();
+        String studentId = request.required(body, "studentId");
+        requireStudent(studentId);
+        double totalMarks = request.number(body, "totalMarks", 100);
+        if (totalMarks <= 0) throw new ApiException(400, "totalMarks must be positive");
+        String gradeId = school.addGrade(studentId, request.required(body, "subject"), request.required(body, "examType"),
+                request.number(body, "marks", 0), totalMarks,
+                request.required(body, "semester"), request.required(body, "academicYear"));
+        return gradeJson(school.findGrade(studentId, gradeId));
+    }
+
+    // GET /api/attendance[?studentId=][&date=|&from=&to=], POST /api/attendance
+    private Object handleAttendance(Request request) {
+        Session session = authenticate(request);
+        if (request.pathAfter("/api/attendance").length != 0) throw new ApiException(404, "Not found");
+
+        if (request.isMethod("GET")) {
+            requirePermission(session, Permission.VIEW_ATTENDANCE);
+            String studentId = studentFilter(session.getUser(), request.query("studentId"));
+            List<Attendance> records;
+            if (request.query("date") != null) {
+                records = school.getAttendanceByDate(request.queryDate("date"));
+            } else if (request.query("from") != null || request.query("to") != null) {
+                records = school.getAttendanceBetween(request.queryDate("from"), request.queryDate("to"));
+            } else if (studentId != null) {
+                records = school.getStudentAttendance(studentId);
+            } else {
+                records = school.getAllAttendance();
+            }
+            if (studentId != null) {
+                records.removeIf(attendance -> !attendance.getStudentId().equals(studentId));
+            }
+            return toJsonList(records, this::attendanceJson);
+        }
+        request.requireMethod("POST");
+        requirePermission(session, Permission.MANAGE_ATTENDANCE);
+        Map<String, String> body = request.body();
+        String studentId = request.required(body, "studentId");
+        requireStudent(studentId);
+        LocalDate date = body.containsKey("date") ? request.date(body, "date") : LocalDate.now();
+        String attendanceId = school.markAttendance(studentId, date, request.required(body, "status"),
+                body.getOrDefault("remarks", ""));
+        return attendanceJson(school.findAttendance(date, attendanceId));
+    }
+
+    // GET /api/fees[?outstanding=true], PUT /api/fees/{studentId}, POST /api/fees/{studentId}/payments
+    private Object handleFees(Request request) {
+        Session session = authenticate(request);
+        String[] path = request.pathAfter("/api/fees");
+
+        if (path.length == 0) {
+            request.requireMethod("GET");
+            requirePermission(session, Permission.VIEW_FEES);
+            String ownId = ownStudentId(session.getUser());
+            List<Student> students;
+            if (ownId != null) {
+                Student own = school.getStudent(ownId);
+                students = own != null ? Collections.singletonList(own) : new ArrayList<>();
+            } else if ("true".equals(request.query("outstanding"))) {
+                students = school.getStudentsWithOutstandingFees();
+            } else {
+                students = school.getAllStudents();
+            }
+            return toJsonList(students, this::feeJson);
+        }
+
+        String studentId = path[0];
+        requirePermission(session, Permission.MANAGE_FEES);
+        if (path.length == 1) {
+            request.requireMethod("PUT");
+            double total = request.number(request.body(), "total", -1);
+            if (total < 0) throw new ApiException(400, "total must be zero or more");
+            if (!school.setStudentFees(studentId, total)) throw new ApiException(404, "Student not found: " + studentId);
+            return feeJson(school.getStudent(studentId));
+        }
+        if (path.length == 2 && path[1].equals("payments")) {
+            request.requireMethod("POST");
+            double amount = request.number(request.body(), "amount", 0);
+            if (amount <= 0) throw new ApiException(400, "amount must be positive");
+            if (!school.addFeePayment(studentId, amount)) throw new ApiException(404, "Student not found: " + studentId);
+            return feeJson(school.getStudent(studentId));
+        }
+        throw new ApiException(404, "Not found");
+    }
+
+    // Access checks
+
+    private Session authenticate(Request request) {
+        Session session = loginSystem.getSession(request.token());
+        if (session == null) {
+            throw new ApiException(401, "Login required");
+        }
+        return session;
+    }
+
+    private void requirePermission(Session session, Permission permission) {
+        if (!session.hasPermission(permission)) {
+            throw new ApiException(403, "Permission denied: " + permission);
+        }
+    }
+
+    // The student a Student or Parent account is limited to; null for staff
+    private String ownStudentId(User user) {
+        String role = user.getRole();
+        if (role.equals("Student") || role.equals("Parent")) {
+            return user.getAssociatedId();
+        }
+        return null;
+    }
+
+    private void checkStudentAccess(User user, String studentId) {
+        String ownId = ownStudentId(user);
+        if (ownId != null && !ownId.equals(studentId)) {
+            throw new ApiException(403, "Access denied to student " + studentId);
+        }
+    }
+
+    // Requested student filter, forced to the user's own student where applicable
+    private String studentFilter(User user, String requested) {
+        String ownId = ownStudentId(user);
+        if (ownId == null) return requested;
+        if (requested != null && !requested.equals(ownId)) {
+            throw new ApiException(403, "Access denied to student " + requested);
+        }
+        return ownId;
+    }
+
+    private Student requireStudent(String studentId) {
+        Student student = school.getStudent(studentId);
+        if (student == null) throw new ApiException(404, "Student not found: " + studentId);
+        return student;
+    }
+
+    // JSON shapes
+
+    private Map<String, Object> studentJson(Student student) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("studentId", student.getStudentId());
+        json.put("firstName", student.getFirstName());
+        json.put("lastName", student.getLastName());
+        json.put("dateOfBirth", student.getDateOfBirth().toString());
+        json.put("gender", student.getGender());
+        json.put("grade", student.getGrade());
+        json.put("parentName", student.getParentName());
+        json.put("parentPhone", student.getParentPhone());
+        json.put("parentEmail", student.getParentEmail());
+        json.put("address", student.getAddress());
+        json.put("enrollmentDate", student.getEnrollmentDate().toString());
+        json.put("status", student.getStatus());
+        return json;
+    }
+
+    private Map<String, Object> teacherJson(Teacher teacher) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("teacherId", teacher.getTeacherId());
+        json.put("firstName", teacher.getFirstName());
+        json.put("lastName", teacher.getLastName());
+        json.put("email", teacher.getEmail());
+        json.put("phone", teacher.getPhone());
+        json.put("subject", teacher.getSubject());
+        json.put("qualification", teacher.getQualification());
+        json.put("salary", teacher.getSalary());
+        json.put("address", teacher.getAddress());
+        json.put("hireDate", teacher.getHireDate().toString());
+        json.put("status", teacher.getStatus());
+        return json;
+    }
+
+    private Map<String, Object> gradeJson(Grade grade) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("gradeId", grade.getGradeId());
+        json.put("studentId", grade.getStudentId());
+        json.put("subject", grade.getSubject());
+        json.put("examType", grade.getExamType());
+        json.put("marks", grade.getMarks());
+        json.put("totalMarks", grade.getTotalMarks());
+        json.put("percentage", grade.getPercentage());
+        json.put("grade", grade.getGrade());
+        json.put("semester", grade.getSemester());
+        json.put("academicYear", grade.getAcademicYear());
+        return json;
+    }
+
+    private Map<String, Object> attendanceJson(Attendance attendance) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("attendanceId", attendance.getAttendanceId());
+        json.put("studentId", attendance.getStudentId());
+        json.put("date", attendance.getDate().toString());
+        json.put("status", attendance.getStatus());
+        json.put("remarks", attendance.getRemarks());
+        return json;
+    }
+
+    private Map<String, Object> feeJson(Student student) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("studentId", student.getStudentId());
+        json.put("name", student.getFullName());
+        json.put("feesTotal", student.getFeesTotal());
+        json.put("feesPaid", student.getFeesPaid());
+        json.put("outstanding", student.getOutstandingFees());
+        return json;
+    }
+
+    private static <T> List<Object> toJsonList(List<T> items, java.util.function.Function<T, Object> toJson) {
+        List<Object> result = new ArrayList<>(items.size());
+        for (T item : items) {
+            result.add(toJson.apply(item));
+        }
+        return result;
+    }
+
+    private static Map<String, Object> message(String text) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("message", text);
+        return json;
+    }
+
+    // Plumbing
+
+    private interface Handler {
+        Object handle(Request request);
+    }
+
+    private HttpHandler route(Handler handler) {
+        return exchange -> {
+            int status = 200;
+            Object response;
+            try {
+                response = handler.handle(new Request(exchange));
+            } catch (ApiException e) {
+                status = e.status;
+                response = error(e.getMessage());
+            } catch (IllegalArgumentException e) {
+                status = 400;
+                response = error(e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Error handling " + exchange.getRequestURI() + ": " + e);
+                status = 500;
+                response = error("Internal server error");
+            }
+
+            byte[] bytes = JsonUtil.toJson(response).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        };
+    }
+
+    private static Map<String, Object> error(String text) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("error", text);
+        return json;
+    }
+
+    private static class ApiException extends RuntimeException {
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private static class Request {
+        private final HttpExchange exchange;
+        private Map<String, String> query;
+
+        Request(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        String method() {
+            return exchange.getRequestMethod();
+        }
+
+        boolean isMethod(String method) {
+            return method().equals(method);
+        }
+
+        void requireMethod(String method) {
+            if (!isMethod(method)) throw new ApiException(405, "Method not allowed");
+        }
+
+        String token() {
+            String header = exchange.getRequestHeaders().getFirst("Authorization");
+            if (header == null || !header.startsWith("Bearer ")) return null;
+            return header.substring("Bearer ".length()).trim();
+        }
+
+        // Path segments after the context prefix, e.g. ["STU1001", "gpa"]
+        String[] pathAfter(String prefix) {
+            String rest = exchange.getRequestURI().getPath().substring(prefix.length());
+            List<String> segments = new ArrayList<>();
+            for (String segment : rest.split("/")) {
+                if (!segment.isEmpty()) segments.add(segment);
+            }
+            return segments.toArray(new String[0]);
+        }
+
+        String query(String name) {
+            if (query == null) {
+                query = new HashMap<>();
+                String raw = exchange.getRequestURI().getRawQuery();
+                if (raw != null) {
+                    for (String pair : raw.split("&")) {
+                        int equals = pair.indexOf('=');
+                        if (equals < 0) continue;
+                        query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                                  URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return query.get(name);
+        }
+
+        LocalDate queryDate(String name) {
+            String value = query(name);
+            if (value == null) throw new ApiException(400, "Missing query parameter: " + name);
+            return parseDate(name, value);
+        }
+
+        Map<String, String> body() {
+            try (InputStream in = exchange.getRequestBody()) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, read);
+                    if (bytes.size() > MAX_BODY_BYTES) throw new ApiException(413, "Request body too large");
+                }
+                return JsonUtil.parseObject(bytes.toString(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new ApiException(400, "Could not read request body");
+            }
+        }
+
+        String required(Map<String, String> body, String name) {
+            String value = body.get(name);
+            if (value == null || value.trim().isEmpty()) {
+                throw new ApiException(400, "Missing field: " + name);
+            }
+            return value.trim();
+        }
+
+        double number(Map<String, String> body, String name, double defaultValue) {
+            String value = body.get(name);
+            if (value == null) return defaultValue;
+            double number;
+            try {
+                number = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "Field " + name + " must be a number");
+            }
+            // A quoted "NaN" or "Infinity" gets past the JSON parser as a string
+            if (!Double.isFinite(number)) throw new ApiException(400, "Field " + name + " must be a finite number");
+            return number;
+        }
+
+        LocalDate date(Map<String, String> body, String name) {
+            return parseDate(name, required(body, name));
+        }
+
+        private static LocalDate parseDate(String name, String value) {
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new ApiException(400, "Field " + name + " must be a date (yyyy-MM-dd)");
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+// A single record added to, changed in or removed from SchoolManagementSystem.
+// Removing a student also publishes a REMOVED event for each of its grades and
+// attendance records.
+public class SchoolEvent {
+    public enum Type { ADDED, UPDATED, REMOVED }
+    
+    private final Type type;
+    private final DataSet dataSet;
+    private final Object entity;
+    
+    public SchoolEvent(Type type, DataSet dataSet, Object entity) {
+        this.type = type;
+        this.dataSet = dataSet;
+        this.entity = entity;
+    }
+    
+    public Type getType() { return type; }
+    public DataSet getDataSet() { return dataSet; } // which kind of record changed
+    public Object getEntity() { return entity; }    // the Student, Teacher, Grade or Attendance
+    
+    @Override
+    public String toString() {
+        return type + " " + entity;
+    }
+}
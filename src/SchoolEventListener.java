@@ -0,0 +1,5 @@
+// Receives every record-level change to SchoolManagementSystem, on the thread that
+// made it. Swing listeners must move to the event thread themselves.
+public interface SchoolEventListener {
+    void schoolChanged(SchoolEvent event);
+}
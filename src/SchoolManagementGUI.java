@@ -1,16 +1,21 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.function.Supplier;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 
 public class SchoolManagementGUI extends JFrame {
     private SchoolManagementSystem school;
     private LoginSystem loginSystem;
+    private StartupLoader loader;
+    private AutosaveService autosave;
+    private final SchoolEventListener schoolListener = this::onSchoolEvent;
     private JTabbedPane tabbedPane;
     private JLabel userInfoLabel;
     private String johnDoeId;
@@ -18,60 +23,89 @@ public class SchoolManagementGUI extends JFrame {
     
     // Student Management
     private JTable studentTable;
-    private DefaultTableModel studentTableModel;
+    private EntityTableModel<Student> studentTableModel;
     private JTextField stuFirstNameField, stuLastNameField, stuGradeField, stuParentNameField;
     private JTextField stuParentPhoneField, stuParentEmailField, stuAddressField, stuDOBField;
     private JTextField stuUsernameField, stuPasswordField, stuParentUsernameField, stuParentPasswordField;
     private JComboBox<String> stuGenderCombo;
+    private JTextField stuSearchField;
+    private JLabel stuSearchStatusLabel;
+    private Timer studentSearchTimer;
+    private SwingWorker<Integer, Student> studentSearchWorker;
+    private int studentSearchGeneration; // results from older searches are dropped
     
     // Teacher Management
     private JTable teacherTable;
-    private DefaultTableModel teacherTableModel;
+    private EntityTableModel<Teacher> teacherTableModel;
     private JTextField teaFirstNameField, teaLastNameField, teaEmailField, teaPhoneField;
     private JTextField teaSubjectField, teaQualificationField, teaSalaryField, teaAddressField;
     private JTextField teaUsernameField, teaPasswordField;
     
     // Grades Management
     private JTable gradeTable;
-    private DefaultTableModel gradeTableModel;
-    private JComboBox<String> gradeStudentCombo, gradeSubjectCombo, gradeExamTypeCombo;
+    private EntityTableModel<Grade> gradeTableModel;
+    private JComboBox<Student> gradeStudentCombo;
+    private JComboBox<String> gradeSubjectCombo, gradeExamTypeCombo;
     private JTextField gradeMarksField, gradeTotalMarksField, gradeSemesterField, gradeYearField;
     
     // Attendance Management
     private JTable attendanceTable;
-    private DefaultTableModel attendanceTableModel;
-    private JComboBox<String> attStudentCombo, attStatusCombo;
+    private EntityTableModel<Attendance> attendanceTableModel;
+    private JComboBox<Student> attStudentCombo;
+    private JComboBox<String> attStatusCombo;
     private JTextField attDateField, attRemarksField;
     
     // Fee Management
     private JTable feeTable;
-    private DefaultTableModel feeTableModel;
-    private JComboBox<String> feeStudentCombo;
+    private EntityTableModel<Student> feeTableModel;
+    private JComboBox<Student> feeStudentCombo;
+    private final StudentListModel studentList = new StudentListModel(); // shared by the student combo boxes
+    private boolean studentListStale = true;
+    
+    // Tabs are built the first time they are selected and only refreshed while showing
+    private final List<LazyTab> lazyTabs = new ArrayList<>();
+    private LazyTab studentTab, teacherTab, gradeTab, attendanceTab, feeTab, dashboardTab;
+    private DashboardPanel dashboardPanel;
     private JTextField feeAmountField, feeTotalField;
     
     public SchoolManagementGUI() {
-        school = new SchoolManagementSystem();
-        loginSystem = new LoginSystem();
-        
-        // Try to load existing data, if none exists start empty
-        if (!DataPersistence.loadData(school, loginSystem)) {
-            loadSampleData();
+        this(new SchoolManagementSystem(), new LoginSystem(), null);
+    }
+    
+    // Data is loaded by loader, which is started here if not given. After a logout the
+    // finished loader is passed back in, so the data already in memory is reused.
+    public SchoolManagementGUI(SchoolManagementSystem school, LoginSystem loginSystem, StartupLoader loader) {
+        this.school = school;
+        this.loginSystem = loginSystem;
+        if (loader == null) {
+            loader = new StartupLoader(school, loginSystem);
+            loader.execute();
         }
+        this.loader = loader;
         
-        // Show login dialog
-        LoginGUI loginDialog = new LoginGUI(this, loginSystem);
+        // Show login dialog; it only waits for the users to load
+        LoginGUI loginDialog = new LoginGUI(this, loginSystem, loader);
         loginDialog.setVisible(true);
         
         if (!loginDialog.isLoginSuccessful()) {
             System.exit(0);
         }
         
-        initializeGUI();
+        // Try to load existing data, if none exists start empty (once, not on every login)
+        boolean generated = false;
+        if (!loader.awaitLoaded(this) && loader.claimEmptyStart()) {
+            generated = loadSampleData();
+        }
+        DataPersistence.openJournal(school, loginSystem);
+        autosave = new AutosaveService(school, loginSystem);
+        if (generated) {
+            // Generated before autosave was listening, so nothing was marked dirty
+            autosave.markAllDirty();
+        }
+        autosave.start(AutosaveService.configuredIntervalSeconds());
         
-        // Only refresh tables if user has permission to see them
-        SwingUtilities.invokeLater(() -> {
-            refreshAllTables();
-        });
+        initializeGUI();
+        school.addSchoolListener(schoolListener);
     }
     
     private void initializeGUI() {
@@ -83,7 +117,7 @@ public class SchoolManagementGUI extends JFrame {
         addWindowListener(new java.awt.event.WindowAdapter() {
             @Override
             public void windowClosing(java.awt.event.WindowEvent windowEvent) {
-                DataPersistence.saveData(school, loginSystem);
+                saveOnExit();
                 System.exit(0);
             }
         });
@@ -109,6 +143,17 @@ public class SchoolManagementGUI extends JFrame {
         
         menuBar.add(userMenu);
         menuBar.add(themeMenu);
+        
+        if (loginSystem.hasPermission(Permission.MANAGE_STUDENTS)) {
+            JMenu dataMenu = new JMenu("Data");
+            JMenuItem exportItem = new JMenuItem("Export Text Files...");
+            JMenuItem importItem = new JMenuItem("Import Text Files...");
+            exportItem.addActionListener(e -> exportTextData());
+            importItem.addActionListener(e -> importTextData());
+            dataMenu.add(exportItem);
+            dataMenu.add(importItem);
+            menuBar.add(dataMenu);
+        }
         setJMenuBar(menuBar);
         
         // User info panel
@@ -131,28 +176,40 @@ public class SchoolManagementGUI extends JFrame {
         tabbedPane = new JTabbedPane();
         
         // Add tabs based on user permissions
-        if (loginSystem.hasPermission("MANAGE_STUDENTS")) {
-            tabbedPane.addTab("Students", createStudentTab());
+        if (loginSystem.hasPermission(Permission.MANAGE_STUDENTS)) {
+            studentTab = addLazyTab("Students", this::createStudentTab, this::refreshStudentTable);
         }
-        if (loginSystem.hasPermission("MANAGE_TEACHERS")) {
-            tabbedPane.addTab("Teachers", createTeacherTab());
+        if (loginSystem.hasPermission(Permission.MANAGE_TEACHERS)) {
+            teacherTab = addLazyTab("Teachers", this::createTeacherTab, this::refreshTeacherTable);
         }
-        if (loginSystem.hasPermission("VIEW_GRADES")) {
-            tabbedPane.addTab("Grades", createGradeTab());
+        if (loginSystem.hasPermission(Permission.VIEW_GRADES)) {
+            gradeTab = addLazyTab("Grades", this::createGradeTab, () -> {
+                refreshGradeTable();
+                refreshStudentList();
+            });
         }
-        if (loginSystem.hasPermission("VIEW_ATTENDANCE")) {
-            tabbedPane.addTab("Attendance", createAttendanceTab());
+        if (loginSystem.hasPermission(Permission.VIEW_ATTENDANCE)) {
+            attendanceTab = addLazyTab("Attendance", this::createAttendanceTab, () -> {
+                refreshAttendanceTable();
+                refreshStudentList();
+            });
         }
-        if (loginSystem.hasPermission("VIEW_FEES")) {
-            tabbedPane.addTab("Fees", createFeeTab());
+        if (loginSystem.hasPermission(Permission.VIEW_FEES)) {
+            feeTab = addLazyTab("Fees", this::createFeeTab, () -> {
+                refreshFeeTable();
+                refreshStudentList();
+            });
         }
         
         // If student or parent, add personal dashboard
         if (loginSystem.getCurrentUser().getRole().equals("Student") || 
             loginSystem.getCurrentUser().getRole().equals("Parent")) {
-            tabbedPane.addTab("My Dashboard", createDashboardTab());
+            dashboardTab = addLazyTab("My Dashboard", this::createDashboardTab, () -> dashboardPanel.refreshData());
         }
         
+        tabbedPane.addChangeListener(e -> showSelectedTab());
+        showSelectedTab();
+        
         add(tabbedPane, BorderLayout.CENTER);
         add(userInfoPanel, BorderLayout.SOUTH);
         setSize(1400, 800);
@@ -262,23 +319,44 @@ public class SchoolManagementGUI extends JFrame {
         JButton updateStudentBtn = new JButton("Update Student");
         JButton deleteStudentBtn = new JButton("Delete Student");
         JButton clearStudentBtn = new JButton("Clear Fields");
-        JButton searchStudentBtn = new JButton("Search");
         
         addStudentBtn.addActionListener(e -> addStudent());
         updateStudentBtn.addActionListener(e -> updateStudent());
         deleteStudentBtn.addActionListener(e -> deleteStudent());
         clearStudentBtn.addActionListener(e -> clearStudentFields());
-        searchStudentBtn.addActionListener(e -> searchStudents());
         
         buttonPanel.add(addStudentBtn);
         buttonPanel.add(updateStudentBtn);
         buttonPanel.add(deleteStudentBtn);
         buttonPanel.add(clearStudentBtn);
-        buttonPanel.add(searchStudentBtn);
+        
+        // Search as you type: wait for a pause in typing, then search in the background
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        stuSearchField = new JTextField(25);
+        stuSearchStatusLabel = new JLabel(" ");
+        searchPanel.add(new JLabel("Search:"));
+        searchPanel.add(stuSearchField);
+        searchPanel.add(stuSearchStatusLabel);
+        
+        studentSearchTimer = new Timer(250, e -> searchStudents());
+        studentSearchTimer.setRepeats(false);
+        stuSearchField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { studentSearchTimer.restart(); }
+            public void removeUpdate(DocumentEvent e) { studentSearchTimer.restart(); }
+            public void changedUpdate(DocumentEvent e) { studentSearchTimer.restart(); }
+        });
         
         // Table
-        String[] columns = {"ID", "Name", "Grade", "Gender", "Parent", "Phone", "Email", "Status"};
-        studentTableModel = new DefaultTableModel(columns, 0);
+        studentTableModel = new EntityTableModel<Student>()
+                .withKey(Student::getStudentId)
+                .addColumn("ID", Student::getStudentId)
+                .addColumn("Name", Student::getFullName)
+                .addColumn("Grade", Student::getGrade)
+                .addColumn("Gender", Student::getGender)
+                .addColumn("Parent", Student::getParentName)
+                .addColumn("Phone", Student::getParentPhone)
+                .addColumn("Email", Student::getParentEmail)
+                .addColumn("Status", Student::getStatus);
         studentTable = new JTable(studentTableModel);
         
         studentTable.getSelectionModel().addListSelectionListener(e -> {
@@ -294,8 +372,12 @@ public class SchoolManagementGUI extends JFrame {
         topPanel.add(inputPanel, BorderLayout.CENTER);
         topPanel.add(buttonPanel, BorderLayout.SOUTH);
         
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.add(searchPanel, BorderLayout.NORTH);
+        tablePanel.add(new JScrollPane(studentTable), BorderLayout.CENTER);
+        
         panel.add(topPanel, BorderLayout.NORTH);
-        panel.add(new JScrollPane(studentTable), BorderLayout.CENTER);
+        panel.add(tablePanel, BorderLayout.CENTER);
         
         return panel;
     }
@@ -392,8 +474,16 @@ public class SchoolManagementGUI extends JFrame {
         buttonPanel.add(clearTeacherBtn);
         
         // Table
-        String[] columns = {"ID", "Name", "Subject", "Email", "Phone", "Qualification", "Salary", "Status"};
-        teacherTableModel = new DefaultTableModel(columns, 0);
+        teacherTableModel = new EntityTableModel<Teacher>()
+                .withKey(Teacher::getTeacherId)
+                .addColumn("ID", Teacher::getTeacherId)
+                .addColumn("Name", Teacher::getFullName)
+                .addColumn("Subject", Teacher::getSubject)
+                .addColumn("Email", Teacher::getEmail)
+                .addColumn("Phone", Teacher::getPhone)
+                .addColumn("Qualification", Teacher::getQualification)
+                .addColumn("Salary", teacher -> String.format("$%.2f", teacher.getSalary()))
+                .addColumn("Status", Teacher::getStatus);
         teacherTable = new JTable(teacherTableModel);
         
         teacherTable.getSelectionModel().addListSelectionListener(e -> {
@@ -427,7 +517,7 @@ public class SchoolManagementGUI extends JFrame {
         gbc.gridx = 0; gbc.gridy = 0;
         inputPanel.add(new JLabel("Student:"), gbc);
         gbc.gridx = 1;
-        gradeStudentCombo = new JComboBox<>();
+        gradeStudentCombo = StudentComboBoxModel.createComboBox(studentList);
         inputPanel.add(gradeStudentCombo, gbc);
         
         gbc.gridx = 2;
@@ -482,8 +572,18 @@ public class SchoolManagementGUI extends JFrame {
         buttonPanel.add(clearGradeBtn);
         
         // Table
-        String[] columns = {"Student ID", "Student Name", "Subject", "Exam Type", "Marks", "Total", "Grade", "Percentage", "Semester", "Year"};
-        gradeTableModel = new DefaultTableModel(columns, 0);
+        gradeTableModel = new EntityTableModel<Grade>()
+                .withKey(Grade::getGradeId)
+                .addColumn("Student ID", Grade::getStudentId)
+                .addColumn("Student Name", grade -> studentName(grade.getStudentId()))
+                .addColumn("Subject", Grade::getSubject)
+                .addColumn("Exam Type", Grade::getExamType)
+                .addColumn("Marks", Grade::getMarks)
+                .addColumn("Total", Grade::getTotalMarks)
+                .addColumn("Grade", Grade::getGrade)
+                .addColumn("Percentage", grade -> String.format("%.1f%%", grade.getPercentage()))
+                .addColumn("Semester", Grade::getSemester)
+                .addColumn("Year", Grade::getAcademicYear);
         gradeTable = new JTable(gradeTableModel);
         
         JPanel topPanel = new JPanel(new BorderLayout());
@@ -508,7 +608,7 @@ public class SchoolManagementGUI extends JFrame {
         gbc.gridx = 0; gbc.gridy = 0;
         inputPanel.add(new JLabel("Student:"), gbc);
         gbc.gridx = 1;
-        attStudentCombo = new JComboBox<>();
+        attStudentCombo = StudentComboBoxModel.createComboBox(studentList);
         inputPanel.add(attStudentCombo, gbc);
         
         gbc.gridx = 2;
@@ -548,8 +648,13 @@ public class SchoolManagementGUI extends JFrame {
         buttonPanel.add(clearAttendanceBtn);
         
         // Table
-        String[] columns = {"Student ID", "Student Name", "Date", "Status", "Remarks"};
-        attendanceTableModel = new DefaultTableModel(columns, 0);
+        attendanceTableModel = new EntityTableModel<Attendance>()
+                .withKey(Attendance::getAttendanceId)
+                .addColumn("Student ID", Attendance::getStudentId)
+                .addColumn("Student Name", attendance -> studentName(attendance.getStudentId()))
+                .addColumn("Date", Attendance::getFormattedDate)
+                .addColumn("Status", Attendance::getStatus)
+                .addColumn("Remarks", Attendance::getRemarks);
         attendanceTable = new JTable(attendanceTableModel);
         
         JPanel topPanel = new JPanel(new BorderLayout());
@@ -574,7 +679,7 @@ public class SchoolManagementGUI extends JFrame {
         gbc.gridx = 0; gbc.gridy = 0;
         inputPanel.add(new JLabel("Student:"), gbc);
         gbc.gridx = 1;
-        feeStudentCombo = new JComboBox<>();
+        feeStudentCombo = StudentComboBoxModel.createComboBox(studentList);
         inputPanel.add(feeStudentCombo, gbc);
         
         gbc.gridx = 2;
@@ -607,8 +712,15 @@ public class SchoolManagementGUI extends JFrame {
         buttonPanel.add(clearFeeBtn);
         
         // Table
-        String[] columns = {"Student ID", "Student Name", "Grade", "Total Fees", "Fees Paid", "Outstanding", "Status"};
-        feeTableModel = new DefaultTableModel(columns, 0);
+        feeTableModel = new EntityTableModel<Student>()
+                .withKey(Student::getStudentId)
+                .addColumn("Student ID", Student::getStudentId)
+                .addColumn("Student Name", Student::getFullName)
+                .addColumn("Grade", Student::getGrade)
+                .addColumn("Total Fees", student -> String.format("$%.2f", student.getFeesTotal()))
+                .addColumn("Fees Paid", student -> String.format("$%.2f", student.getFeesPaid()))
+                .addColumn("Outstanding", student -> String.format("$%.2f", student.getOutstandingFees()))
+                .addColumn("Status", student -> student.getOutstandingFees() > 0 ? "Outstanding" : "Paid");
         feeTable = new JTable(feeTableModel);
         
         JPanel topPanel = new JPanel(new BorderLayout());
@@ -622,7 +734,7 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     // Permission check helper
-    private boolean checkPermission(String permission) {
+    private boolean checkPermission(Permission permission) {
         if (!loginSystem.hasPermission(permission)) {
             JOptionPane.showMessageDialog(this, "You don't have permission to perform this action!", 
                     "Access Denied", JOptionPane.ERROR_MESSAGE);
@@ -671,7 +783,7 @@ public class SchoolManagementGUI extends JFrame {
     
     // Student Management Methods
     private void addStudent() {
-        if (!checkPermission("MANAGE_STUDENTS")) return;
+        if (!checkPermission(Permission.MANAGE_STUDENTS)) return;
         try {
             String firstName = stuFirstNameField.getText().trim();
             String lastName = stuLastNameField.getText().trim();
@@ -711,7 +823,6 @@ public class SchoolManagementGUI extends JFrame {
                 message.append("\nParent login created: ").append(parentUsername);
             }
             
-            refreshAllTables();
             clearStudentFields();
             JOptionPane.showMessageDialog(this, message.toString());
         } catch (Exception ex) {
@@ -720,11 +831,11 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     private void updateStudent() {
-        if (!checkPermission("MANAGE_STUDENTS")) return;
+        if (!checkPermission(Permission.MANAGE_STUDENTS)) return;
         int row = studentTable.getSelectedRow();
         if (row >= 0) {
             try {
-                String studentId = (String) studentTableModel.getValueAt(row, 0);
+                String studentId = studentTableModel.getRow(row).getStudentId();
                 String firstName = stuFirstNameField.getText().trim();
                 String lastName = stuLastNameField.getText().trim();
                 String grade = stuGradeField.getText().trim();
@@ -735,7 +846,6 @@ public class SchoolManagementGUI extends JFrame {
                 
                 if (school.updateStudent(studentId, firstName, lastName, grade, parentName, 
                                        parentPhone, parentEmail, address)) {
-                    refreshAllTables();
                     clearStudentFields();
                     JOptionPane.showMessageDialog(this, "Student updated successfully!");
                 } else {
@@ -750,11 +860,12 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     private void deleteStudent() {
-        if (!checkPermission("MANAGE_STUDENTS")) return;
+        if (!checkPermission(Permission.MANAGE_STUDENTS)) return;
         int row = studentTable.getSelectedRow();
         if (row >= 0) {
-            String studentId = (String) studentTableModel.getValueAt(row, 0);
-            String studentName = (String) studentTableModel.getValueAt(row, 1);
+            Student selected = studentTableModel.getRow(row);
+            String studentId = selected.getStudentId();
+            String studentName = selected.getFullName();
             
             // Count related records
             int gradeCount = school.getStudentGrades(studentId).size();
@@ -775,7 +886,6 @@ public class SchoolManagementGUI extends JFrame {
             
             if (confirm == JOptionPane.YES_OPTION) {
                 if (school.removeStudent(studentId)) {
-                    refreshAllTables();
                     clearStudentFields();
                     JOptionPane.showMessageDialog(this, "Student and all related records deleted successfully!");
                 } else {
@@ -787,17 +897,65 @@ public class SchoolManagementGUI extends JFrame {
         }
     }
     
+    // Runs the search in the search field on a background thread, replacing any
+    // search still in progress. Rows are added to the table as they arrive.
     private void searchStudents() {
-        String keyword = JOptionPane.showInputDialog(this, "Enter search keyword:");
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            List<Student> results = school.searchStudents(keyword.trim());
-            updateStudentTable(results);
+        if (studentSearchWorker != null) {
+            studentSearchWorker.cancel(false);
+            studentSearchWorker = null;
+        }
+        final int generation = ++studentSearchGeneration;
+        final String keyword = stuSearchField.getText().trim();
+        if (keyword.isEmpty()) {
+            stuSearchStatusLabel.setText(" ");
+            updateStudentTable(getFilteredStudents());
+            return;
         }
+        
+        // Students and parents only ever see their own record
+        User currentUser = loginSystem.getCurrentUser();
+        final String ownStudentId = currentUser.getRole().equals("Student") || currentUser.getRole().equals("Parent")
+                ? currentUser.getAssociatedId() : null;
+        
+        studentTableModel.setRows(new ArrayList<>());
+        stuSearchStatusLabel.setText("Searching...");
+        studentSearchWorker = new SwingWorker<Integer, Student>() {
+            @Override
+            protected Integer doInBackground() {
+                int count = 0;
+                for (Student student : school.searchStudents(keyword)) {
+                    if (isCancelled()) break;
+                    if (ownStudentId != null && !ownStudentId.equals(student.getStudentId())) continue;
+                    publish(student);
+                    count++;
+                }
+                return count;
+            }
+            
+            @Override
+            protected void process(List<Student> chunk) {
+                if (generation != studentSearchGeneration) return;
+                studentTableModel.addRows(chunk);
+            }
+            
+            @Override
+            protected void done() {
+                if (generation != studentSearchGeneration || isCancelled()) return;
+                try {
+                    int count = get();
+                    stuSearchStatusLabel.setText(count + (count == 1 ? " match" : " matches"));
+                } catch (Exception e) {
+                    stuSearchStatusLabel.setText("Search failed");
+                    System.err.println("Error searching students: " + e.getMessage());
+                }
+                studentSearchWorker = null;
+            }
+        };
+        studentSearchWorker.execute();
     }
     
     private void loadStudentToFields(int row) {
-        String studentId = (String) studentTableModel.getValueAt(row, 0);
-        Student student = school.getStudent(studentId);
+        Student student = school.getStudent(studentTableModel.getRow(row).getStudentId());
         if (student != null) {
             stuFirstNameField.setText(student.getFirstName());
             stuLastNameField.setText(student.getLastName());
@@ -829,7 +987,7 @@ public class SchoolManagementGUI extends JFrame {
     
     // Teacher Management Methods
     private void addTeacher() {
-        if (!checkPermission("MANAGE_TEACHERS")) return;
+        if (!checkPermission(Permission.MANAGE_TEACHERS)) return;
         try {
             String firstName = teaFirstNameField.getText().trim();
             String lastName = teaLastNameField.getText().trim();
@@ -860,7 +1018,6 @@ public class SchoolManagementGUI extends JFrame {
                 message.append("\nLogin account created: ").append(username);
             }
             
-            refreshAllTables();
             clearTeacherFields();
             JOptionPane.showMessageDialog(this, message.toString());
         } catch (Exception ex) {
@@ -869,11 +1026,11 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     private void updateTeacher() {
-        if (!checkPermission("MANAGE_TEACHERS")) return;
+        if (!checkPermission(Permission.MANAGE_TEACHERS)) return;
         int row = teacherTable.getSelectedRow();
         if (row >= 0) {
             try {
-                String teacherId = (String) teacherTableModel.getValueAt(row, 0);
+                String teacherId = teacherTableModel.getRow(row).getTeacherId();
                 String firstName = teaFirstNameField.getText().trim();
                 String lastName = teaLastNameField.getText().trim();
                 String email = teaEmailField.getText().trim();
@@ -885,7 +1042,6 @@ public class SchoolManagementGUI extends JFrame {
                 
                 if (school.updateTeacher(teacherId, firstName, lastName, email, phone, subject, 
                                        qualification, salary, address)) {
-                    refreshAllTables();
                     clearTeacherFields();
                     JOptionPane.showMessageDialog(this, "Teacher updated successfully!");
                 } else {
@@ -900,16 +1056,15 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     private void deleteTeacher() {
-        if (!checkPermission("MANAGE_TEACHERS")) return;
+        if (!checkPermission(Permission.MANAGE_TEACHERS)) return;
         int row = teacherTable.getSelectedRow();
         if (row >= 0) {
-            String teacherId = (String) teacherTableModel.getValueAt(row, 0);
+            String teacherId = teacherTableModel.getRow(row).getTeacherId();
             int confirm = JOptionPane.showConfirmDialog(this, "Delete teacher " + teacherId + "?", 
                     "Confirm Deletion", JOptionPane.YES_NO_OPTION);
             
             if (confirm == JOptionPane.YES_OPTION) {
                 if (school.removeTeacher(teacherId)) {
-                    refreshAllTables();
                     clearTeacherFields();
                     JOptionPane.showMessageDialog(this, "Teacher deleted successfully!");
                 } else {
@@ -922,7 +1077,7 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     private void loadTeacherToFields(int row) {
-        String teacherId = (String) teacherTableModel.getValueAt(row, 0);
+        String teacherId = teacherTableModel.getRow(row).getTeacherId();
         Teacher teacher = school.getTeacher(teacherId);
         if (teacher != null) {
             teaFirstNameField.setText(teacher.getFirstName());
@@ -951,15 +1106,15 @@ public class SchoolManagementGUI extends JFrame {
     
     // Grade Management Methods
     private void addGrade() {
-        if (!checkPermission("MANAGE_GRADES")) return;
+        if (!checkPermission(Permission.MANAGE_GRADES)) return;
         try {
-            String studentInfo = (String) gradeStudentCombo.getSelectedItem();
-            if (studentInfo == null) {
+            Student student = (Student) gradeStudentCombo.getSelectedItem();
+            if (student == null) {
                 JOptionPane.showMessageDialog(this, "Please select a student!");
                 return;
             }
             
-            String studentId = studentInfo.split(" - ")[0];
+            String studentId = student.getStudentId();
             String subject = (String) gradeSubjectCombo.getSelectedItem();
             String examType = (String) gradeExamTypeCombo.getSelectedItem();
             double marks = Double.parseDouble(gradeMarksField.getText().trim());
@@ -974,7 +1129,6 @@ public class SchoolManagementGUI extends JFrame {
             double overallGPA = school.calculateOverallGPA(studentId);
             double subjectGPA = school.calculateSubjectGPA(studentId, subject);
             
-            refreshGradeTable();
             clearGradeFields();
             
             String message = String.format(
@@ -982,7 +1136,7 @@ public class SchoolManagementGUI extends JFrame {
                 "Updated GPAs for %s:\n" +
                 "Overall GPA: %.2f%%\n" +
                 "%s GPA: %.2f%%",
-                gradeId, studentInfo.split(" - ")[1], overallGPA, subject, subjectGPA
+                gradeId, student.getFullName(), overallGPA, subject, subjectGPA
             );
             
             JOptionPane.showMessageDialog(this, message, "Grade Added - GPA Updated", JOptionPane.INFORMATION_MESSAGE);
@@ -992,13 +1146,13 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     private void calculateGPA() {
-        String studentInfo = (String) gradeStudentCombo.getSelectedItem();
-        if (studentInfo == null) {
+        Student student = (Student) gradeStudentCombo.getSelectedItem();
+        if (student == null) {
             JOptionPane.showMessageDialog(this, "Please select a student!");
             return;
         }
         
-        String studentId = studentInfo.split(" - ")[0];
+        String studentId = student.getStudentId();
         String semester = gradeSemesterField.getText().trim();
         String academicYear = gradeYearField.getText().trim();
         
@@ -1009,7 +1163,7 @@ public class SchoolManagementGUI extends JFrame {
         
         double gpa = school.calculateStudentGPA(studentId, semester, academicYear);
         JOptionPane.showMessageDialog(this, String.format("GPA for %s in %s %s: %.2f%%", 
-                studentInfo, semester, academicYear, gpa));
+                student.getFullName(), semester, academicYear, gpa));
     }
     
     private void clearGradeFields() {
@@ -1021,21 +1175,20 @@ public class SchoolManagementGUI extends JFrame {
     
     // Attendance Management Methods
     private void markAttendance() {
-        if (!checkPermission("MANAGE_ATTENDANCE")) return;
+        if (!checkPermission(Permission.MANAGE_ATTENDANCE)) return;
         try {
-            String studentInfo = (String) attStudentCombo.getSelectedItem();
-            if (studentInfo == null) {
+            Student student = (Student) attStudentCombo.getSelectedItem();
+            if (student == null) {
                 JOptionPane.showMessageDialog(this, "Please select a student!");
                 return;
             }
             
-            String studentId = studentInfo.split(" - ")[0];
+            String studentId = student.getStudentId();
             LocalDate date = LocalDate.parse(attDateField.getText().trim());
             String status = (String) attStatusCombo.getSelectedItem();
             String remarks = attRemarksField.getText().trim();
             
             String attendanceId = school.markAttendance(studentId, date, status, remarks);
-            refreshAttendanceTable();
             clearAttendanceFields();
             JOptionPane.showMessageDialog(this, "Attendance marked successfully! ID: " + attendanceId);
         } catch (Exception ex) {
@@ -1044,17 +1197,17 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     private void viewStudentAttendance() {
-        String studentInfo = (String) attStudentCombo.getSelectedItem();
-        if (studentInfo == null) {
+        Student student = (Student) attStudentCombo.getSelectedItem();
+        if (student == null) {
             JOptionPane.showMessageDialog(this, "Please select a student!");
             return;
         }
         
-        String studentId = studentInfo.split(" - ")[0];
+        String studentId = student.getStudentId();
         List<Attendance> attendance = school.getStudentAttendance(studentId);
         
         StringBuilder report = new StringBuilder();
-        report.append("Attendance Report for ").append(studentInfo).append("\n\n");
+        report.append("Attendance Report for ").append(student.getStudentId()).append(" - ").append(student.getFullName()).append("\n\n");
         
         for (Attendance att : attendance) {
             report.append(att.toString()).append("\n");
@@ -1069,8 +1222,8 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     private void calculateAttendancePercentage() {
-        String studentInfo = (String) attStudentCombo.getSelectedItem();
-        if (studentInfo == null) {
+        Student student = (Student) attStudentCombo.getSelectedItem();
+        if (student == null) {
             JOptionPane.showMessageDialog(this, "Please select a student!");
             return;
         }
@@ -1079,13 +1232,13 @@ public class SchoolManagementGUI extends JFrame {
         String endDateStr = JOptionPane.showInputDialog(this, "Enter end date (YYYY-MM-DD):");
         
         try {
-            String studentId = studentInfo.split(" - ")[0];
+            String studentId = student.getStudentId();
             LocalDate startDate = LocalDate.parse(startDateStr);
             LocalDate endDate = LocalDate.parse(endDateStr);
             
             double percentage = school.calculateAttendancePercentage(studentId, startDate, endDate);
             JOptionPane.showMessageDialog(this, String.format("Attendance percentage for %s from %s to %s: %.2f%%", 
-                    studentInfo, startDateStr, endDateStr, percentage));
+                    student.getFullName(), startDateStr, endDateStr, percentage));
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
         }
@@ -1099,19 +1252,18 @@ public class SchoolManagementGUI extends JFrame {
     
     // Fee Management Methods
     private void addFeePayment() {
-        if (!checkPermission("MANAGE_FEES")) return;
+        if (!checkPermission(Permission.MANAGE_FEES)) return;
         try {
-            String studentInfo = (String) feeStudentCombo.getSelectedItem();
-            if (studentInfo == null) {
+            Student student = (Student) feeStudentCombo.getSelectedItem();
+            if (student == null) {
                 JOptionPane.showMessageDialog(this, "Please select a student!");
                 return;
             }
             
-            String studentId = studentInfo.split(" - ")[0];
+            String studentId = student.getStudentId();
             double amount = Double.parseDouble(feeAmountField.getText().trim());
             
             if (school.addFeePayment(studentId, amount)) {
-                refreshFeeTable();
                 clearFeeFields();
                 JOptionPane.showMessageDialog(this, "Fee payment added successfully!");
             } else {
@@ -1123,19 +1275,18 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     private void setTotalFees() {
-        if (!checkPermission("MANAGE_FEES")) return;
+        if (!checkPermission(Permission.MANAGE_FEES)) return;
         try {
-            String studentInfo = (String) feeStudentCombo.getSelectedItem();
-            if (studentInfo == null) {
+            Student student = (Student) feeStudentCombo.getSelectedItem();
+            if (student == null) {
                 JOptionPane.showMessageDialog(this, "Please select a student!");
                 return;
             }
             
-            String studentId = studentInfo.split(" - ")[0];
+            String studentId = student.getStudentId();
             double totalFees = Double.parseDouble(feeTotalField.getText().trim());
             
             if (school.setStudentFees(studentId, totalFees)) {
-                refreshFeeTable();
                 clearFeeFields();
                 JOptionPane.showMessageDialog(this, "Total fees set successfully!");
             } else {
@@ -1176,152 +1327,203 @@ public class SchoolManagementGUI extends JFrame {
     }
     
     // Refresh Methods
+    // Refreshes the showing tab; the others are refreshed when next selected
     private void refreshAllTables() {
-        if (studentTableModel != null) refreshStudentTable();
-        if (teacherTableModel != null) refreshTeacherTable();
-        if (gradeTableModel != null) refreshGradeTable();
-        if (attendanceTableModel != null) refreshAttendanceTable();
-        if (feeTableModel != null) refreshFeeTable();
-        updateComboBoxes();
-        
-        // Reapply theme after refresh
-        SwingUtilities.invokeLater(() -> ThemeManager.applyTheme(this));
+        for (LazyTab tab : lazyTabs) {
+            markStale(tab);
+        }
+        studentListStale = true;
+        showSelectedTab();
     }
     
     private void refreshStudentTable() {
-        updateStudentTable(getFilteredStudents());
+        if (stuSearchField != null && !stuSearchField.getText().trim().isEmpty()) {
+            searchStudents(); // keep showing the results of the current search
+        } else {
+            updateStudentTable(getFilteredStudents());
+        }
     }
     
     private void updateStudentTable(List<Student> students) {
-        studentTableModel.setRowCount(0);
-        // Use the provided students list, but filter if needed
-        List<Student> studentsToShow = students;
-        User currentUser = loginSystem.getCurrentUser();
-        String role = currentUser.getRole();
-        
         // Apply role-based filtering
+        String role = loginSystem.getCurrentUser().getRole();
         if (role.equals("Student") || role.equals("Parent")) {
-            studentsToShow = getFilteredStudents();
-        }
-        
-        for (Student student : studentsToShow) {
-            Object[] row = {
-                student.getStudentId(),
-                student.getFullName(),
-                student.getGrade(),
-                student.getGender(),
-                student.getParentName(),
-                student.getParentPhone(),
-                student.getParentEmail(),
-                student.getStatus()
-            };
-            studentTableModel.addRow(row);
+            students = getFilteredStudents();
         }
+        studentTableModel.setRows(students);
     }
     
     private void refreshTeacherTable() {
-        teacherTableModel.setRowCount(0);
-        for (Teacher teacher : school.getAllTeachers()) {
-            Object[] row = {
-                teacher.getTeacherId(),
-                teacher.getFullName(),
-                teacher.getSubject(),
-                teacher.getEmail(),
-                teacher.getPhone(),
-                teacher.getQualification(),
-                String.format("$%.2f", teacher.getSalary()),
-                teacher.getStatus()
-            };
-            teacherTableModel.addRow(row);
-        }
+        teacherTableModel.setRows(school.getAllTeachers());
     }
     
     private void refreshGradeTable() {
-        gradeTableModel.setRowCount(0);
-        for (Grade grade : getFilteredGrades()) {
-            Student student = school.getStudent(grade.getStudentId());
-            String studentName = student != null ? student.getFullName() : "Unknown";
-            
-            Object[] row = {
-                grade.getStudentId(),
-                studentName,
-                grade.getSubject(),
-                grade.getExamType(),
-                grade.getMarks(),
-                grade.getTotalMarks(),
-                grade.getGrade(),
-                String.format("%.1f%%", grade.getPercentage()),
-                grade.getSemester(),
-                grade.getAcademicYear()
-            };
-            gradeTableModel.addRow(row);
-        }
+        gradeTableModel.setRows(getFilteredGrades());
     }
     
     private void refreshAttendanceTable() {
-        attendanceTableModel.setRowCount(0);
-        for (Attendance attendance : school.getAttendanceByDate(LocalDate.now())) {
-            Student student = school.getStudent(attendance.getStudentId());
-            String studentName = student != null ? student.getFullName() : "Unknown";
-            
-            Object[] row = {
-                attendance.getStudentId(),
-                studentName,
-                attendance.getFormattedDate(),
-                attendance.getStatus(),
-                attendance.getRemarks()
-            };
-            attendanceTableModel.addRow(row);
-        }
+        attendanceTableModel.setRows(school.getAttendanceByDate(LocalDate.now()));
     }
     
     private void refreshFeeTable() {
-        feeTableModel.setRowCount(0);
-        for (Student student : school.getAllStudents()) {
-            String status = student.getOutstandingFees() > 0 ? "Outstanding" : "Paid";
+        feeTableModel.setRows(school.getAllStudents());
+    }
+    
+    private LazyTab addLazyTab(String title, Supplier<JComponent> factory, Runnable refresh) {
+        LazyTab tab = new LazyTab(factory, refresh);
+        lazyTabs.add(tab);
+        tabbedPane.addTab(title, tab.holder);
+        return tab;
+    }
+    
+    // Builds the selected tab on first use, and reloads its data if it went stale while hidden
+    private void showSelectedTab() {
+        Component selected = tabbedPane.getSelectedComponent();
+        for (LazyTab tab : lazyTabs) {
+            if (tab.holder != selected) continue;
             
-            Object[] row = {
-                student.getStudentId(),
-                student.getFullName(),
-                student.getGrade(),
-                String.format("$%.2f", student.getFeesTotal()),
-                String.format("$%.2f", student.getFeesPaid()),
-                String.format("$%.2f", student.getOutstandingFees()),
-                status
-            };
-            feeTableModel.addRow(row);
+            if (!tab.built) {
+                tab.holder.add(tab.factory.get(), BorderLayout.CENTER);
+                tab.built = true;
+                ThemeManager.applyTheme(tab.holder); // only the new tab; the rest of the frame is already themed
+                tab.holder.revalidate();
+            }
+            if (tab.stale) {
+                tab.refresh.run();
+                tab.stale = false;
+            }
         }
     }
     
-    private void updateComboBoxes() {
-        // Update student combo boxes only if they exist
-        if (gradeStudentCombo != null) {
-            gradeStudentCombo.removeAllItems();
-            for (Student student : school.getAllStudents()) {
-                String item = student.getStudentId() + " - " + student.getFullName();
-                gradeStudentCombo.addItem(item);
-            }
+    private boolean isShowing(LazyTab tab) {
+        return tab != null && tab.built && !tab.stale && tabbedPane.getSelectedComponent() == tab.holder;
+    }
+    
+    private void markStale(LazyTab tab) {
+        if (tab != null && tab.built) tab.stale = true;
+    }
+    
+    private void refreshStudentList() {
+        if (studentListStale) {
+            updateComboBoxes();
+            studentListStale = false;
         }
-        
-        if (attStudentCombo != null) {
-            attStudentCombo.removeAllItems();
-            for (Student student : school.getAllStudents()) {
-                String item = student.getStudentId() + " - " + student.getFullName();
-                attStudentCombo.addItem(item);
-            }
+    }
+    
+    private static class LazyTab {
+        final JPanel holder = new JPanel(new BorderLayout());
+        final Supplier<JComponent> factory;
+        final Runnable refresh;
+        boolean built;
+        boolean stale = true; // built tabs are refreshed when selected while stale
+        
+        LazyTab(Supplier<JComponent> factory, Runnable refresh) {
+            this.factory = factory;
+            this.refresh = refresh;
         }
-        
-        if (feeStudentCombo != null) {
-            feeStudentCombo.removeAllItems();
-            for (Student student : school.getAllStudents()) {
-                String item = student.getStudentId() + " - " + student.getFullName();
-                feeStudentCombo.addItem(item);
+    }
+    
+    private String studentName(String studentId) {
+        Student student = school.getStudent(studentId);
+        return student != null ? student.getFullName() : "Unknown";
+    }
+    
+    // Applies one change to the tables and student lists that show it, instead of
+    // rebuilding them. Changes can come from any thread; Swing is updated on the event thread.
+    private void onSchoolEvent(SchoolEvent event) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            applySchoolEvent(event);
+        } else {
+            SwingUtilities.invokeLater(() -> applySchoolEvent(event));
+        }
+    }
+    
+    // Tabs that are not showing are only marked stale
+    private void applySchoolEvent(SchoolEvent event) {
+        SchoolEvent.Type type = event.getType();
+        switch (event.getDataSet()) {
+            case STUDENTS: {
+                Student student = (Student) event.getEntity();
+                if (!isShowing(studentTab)) {
+                    markStale(studentTab);
+                } else if (!stuSearchField.getText().trim().isEmpty()) {
+                    studentSearchTimer.restart(); // the change may affect the current matches
+                } else if (type == SchoolEvent.Type.REMOVED) {
+                    studentTableModel.removeRow(student);
+                } else if (isVisibleStudent(student.getStudentId())) {
+                    studentTableModel.addRow(student);
+                }
+                if (!isShowing(feeTab)) {
+                    markStale(feeTab);
+                } else if (type == SchoolEvent.Type.REMOVED) {
+                    feeTableModel.removeRow(student);
+                } else {
+                    feeTableModel.addRow(student);
+                }
+                if (type == SchoolEvent.Type.UPDATED) {
+                    // Grade and attendance rows show the student's name
+                    if (isShowing(gradeTab)) gradeTableModel.refreshRows();
+                    if (isShowing(attendanceTab)) attendanceTableModel.refreshRows();
+                }
+                if (!studentListStale) {
+                    if (type == SchoolEvent.Type.REMOVED) studentList.remove(student);
+                    else studentList.add(student);
+                }
+                markStale(dashboardTab);
+                break;
             }
+            case TEACHERS:
+                if (!isShowing(teacherTab)) {
+                    markStale(teacherTab);
+                } else {
+                    Teacher teacher = (Teacher) event.getEntity();
+                    if (type == SchoolEvent.Type.REMOVED) teacherTableModel.removeRow(teacher);
+                    else teacherTableModel.addRow(teacher);
+                }
+                break;
+            case GRADES:
+                if (!isShowing(gradeTab)) {
+                    markStale(gradeTab);
+                } else {
+                    Grade grade = (Grade) event.getEntity();
+                    if (type == SchoolEvent.Type.REMOVED) gradeTableModel.removeRow(grade);
+                    else if (isVisibleStudent(grade.getStudentId())) gradeTableModel.addRow(grade);
+                }
+                markStale(dashboardTab);
+                break;
+            case ATTENDANCE:
+                if (!isShowing(attendanceTab)) {
+                    markStale(attendanceTab);
+                } else {
+                    Attendance attendance = (Attendance) event.getEntity();
+                    if (type == SchoolEvent.Type.REMOVED) attendanceTableModel.removeRow(attendance);
+                    else if (attendance.getDate().equals(LocalDate.now())) attendanceTableModel.addRow(attendance);
+                }
+                markStale(dashboardTab);
+                break;
+            default:
+                break;
         }
     }
     
+    // Students and parents only see their own student's records
+    private boolean isVisibleStudent(String studentId) {
+        User currentUser = loginSystem.getCurrentUser();
+        String role = currentUser.getRole();
+        if (role.equals("Student") || role.equals("Parent")) {
+            return studentId.equals(currentUser.getAssociatedId());
+        }
+        return true;
+    }
+    
+    private void updateComboBoxes() {
+        studentList.setStudents(school.getAllStudents());
+    }
+    
     private JPanel createDashboardTab() {
-        return new DashboardPanel(school, loginSystem);
+        dashboardPanel = new DashboardPanel(school, loginSystem);
+        dashboardTab.stale = false; // the panel loads its data when created
+        return dashboardPanel;
     }
     
     private void logout() {
@@ -1330,18 +1532,27 @@ public class SchoolManagementGUI extends JFrame {
         
         if (confirm == JOptionPane.YES_OPTION) {
             // Save data before logout
-            DataPersistence.saveData(school, loginSystem);
+            saveOnExit();
             
+            school.removeSchoolListener(schoolListener);
             loginSystem.logout();
             dispose();
             
-            // Restart application
+            // Restart application with the data already loaded
             SwingUtilities.invokeLater(() -> {
-                new SchoolManagementGUI().setVisible(true);
+                new SchoolManagementGUI(school, loginSystem, loader).setVisible(true);
             });
         }
     }
     
+    // Only data changed since the last autosave is written; fall back to a full save on failure
+    private void saveOnExit() {
+        if (!autosave.shutdown()) {
+            DataPersistence.saveData(school, loginSystem);
+        }
+        DataPersistence.closeJournal();
+    }
+    
     private void changePassword() {
         JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
         JPasswordField oldPasswordField = new JPasswordField();
@@ -1382,6 +1593,33 @@ public class SchoolManagementGUI extends JFrame {
         }
     }
     
+    private void exportTextData() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        
+        try {
+            DataPersistence.exportTextData(school, loginSystem, chooser.getSelectedFile().getPath());
+            JOptionPane.showMessageDialog(this, "Data exported to " + chooser.getSelectedFile().getPath());
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
+        }
+    }
+    
+    private void importTextData() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        
+        try {
+            DataPersistence.importTextData(school, loginSystem, chooser.getSelectedFile().getPath());
+            refreshAllTables();
+            JOptionPane.showMessageDialog(this, "Data imported from " + chooser.getSelectedFile().getPath());
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
+        }
+    }
+    
     private void toggleDarkMode() {
         ThemeManager.setDarkMode(!ThemeManager.isDarkMode());
         ThemeManager.applyTheme(this);
@@ -1405,9 +1643,19 @@ public class SchoolManagementGUI extends JFrame {
         // No dummy users to update
     }
     
-    private void loadSampleData() {
+    // Returns true if sample data was generated
+    private boolean loadSampleData() {
+        // Generated sample data only when asked for with -Dschool.sampleStudents=N
+        int sampleStudents = Integer.getInteger("school.sampleStudents", 0);
+        if (sampleStudents > 0) {
+            new SampleDataGenerator().students(sampleStudents).populate(school, loginSystem);
+            System.out.println("Generated sample data for " + sampleStudents + " students");
+            return true;
+        }
+        
         // No sample data - start with empty system
         System.out.println("Starting with empty system - add your own data!");
+        return false;
     }
 
     // Small main entry so this GUI can be launched directly
@@ -1,71 +1,284 @@
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+// Safe for concurrent use. Students and teachers live in concurrent maps and are
+// read without locking. Grade and attendance collections (with their indexes) are
+// each guarded by a read-write lock, held only while the collections are touched;
+// journal writes and listener calls happen outside the locks.
 public class SchoolManagementSystem {
+    // Latency of each public operation, reported as "school.<method>" (see Metrics).
+    // Single-record lookups (getStudent, getTeacher) are left out: two clock reads
+    // would cost more than the lookup.
+    private static final LatencyHistogram ADD_STUDENT_TIMER = Metrics.timer("school.addStudent");
+    private static final LatencyHistogram UPDATE_STUDENT_TIMER = Metrics.timer("school.updateStudent");
+    private static final LatencyHistogram REMOVE_STUDENT_TIMER = Metrics.timer("school.removeStudent");
+    private static final LatencyHistogram GET_ALL_STUDENTS_TIMER = Metrics.timer("school.getAllStudents");
+    private static final LatencyHistogram GET_STUDENTS_BY_GRADE_TIMER = Metrics.timer("school.getStudentsByGrade");
+    private static final LatencyHistogram ADD_TEACHER_TIMER = Metrics.timer("school.addTeacher");
+    private static final LatencyHistogram UPDATE_TEACHER_TIMER = Metrics.timer("school.updateTeacher");
+    private static final LatencyHistogram REMOVE_TEACHER_TIMER = Metrics.timer("school.removeTeacher");
+    private static final LatencyHistogram GET_ALL_TEACHERS_TIMER = Metrics.timer("school.getAllTeachers");
+    private static final LatencyHistogram ADD_GRADE_TIMER = Metrics.timer("school.addGrade");
+    private static final LatencyHistogram GET_STUDENT_GRADES_TIMER = Metrics.timer("school.getStudentGrades");
+    private static final LatencyHistogram GET_ALL_GRADES_TIMER = Metrics.timer("school.getAllGrades");
+    private static final LatencyHistogram CALCULATE_STUDENT_GPA_TIMER = Metrics.timer("school.calculateStudentGPA");
+    private static final LatencyHistogram CALCULATE_OVERALL_GPA_TIMER = Metrics.timer("school.calculateOverallGPA");
+    private static final LatencyHistogram CALCULATE_SUBJECT_GPA_TIMER = Metrics.timer("school.calculateSubjectGPA");
+    private static final LatencyHistogram MARK_ATTENDANCE_TIMER = Metrics.timer("school.markAttendance");
+    private static final LatencyHistogram GET_STUDENT_ATTENDANCE_TIMER = Metrics.timer("school.getStudentAttendance");
+    private static final LatencyHistogram GET_ATTENDANCE_BY_DATE_TIMER = Metrics.timer("school.getAttendanceByDate");
+    private static final LatencyHistogram GET_ATTENDANCE_BETWEEN_TIMER = Metrics.timer("school.getAttendanceBetween");
+    private static final LatencyHistogram GET_ALL_ATTENDANCE_TIMER = Metrics.timer("school.getAllAttendance");
+    private static final LatencyHistogram CALCULATE_ATTENDANCE_PERCENTAGE_TIMER = Metrics.timer("school.calculateAttendancePercentage");
+    private static final LatencyHistogram ADD_FEE_PAYMENT_TIMER = Metrics.timer("school.addFeePayment");
+    private static final LatencyHistogram SET_STUDENT_FEES_TIMER = Metrics.timer("school.setStudentFees");
+    private static final LatencyHistogram GET_STUDENTS_WITH_OUTSTANDING_FEES_TIMER = Metrics.timer("school.getStudentsWithOutstandingFees");
+    private static final LatencyHistogram SEARCH_STUDENTS_TIMER = Metrics.timer("school.searchStudents");
+    private static final LatencyHistogram SEARCH_TEACHERS_TIMER = Metrics.timer("school.searchTeachers");
+    private static final LatencyHistogram GET_GRADES_TIMER = Metrics.timer("school.getGrades");
+    private static final LatencyHistogram GET_SUBJECTS_TIMER = Metrics.timer("school.getSubjects");
+    private static final LatencyHistogram CLEANUP_ORPHANED_RECORDS_TIMER = Metrics.timer("school.cleanupOrphanedRecords");
+    private static final LatencyHistogram GET_ORPHANED_GRADE_STUDENTS_TIMER = Metrics.timer("school.getOrphanedGradeStudents");
+    private static final LatencyHistogram GET_ORPHANED_ATTENDANCE_STUDENTS_TIMER = Metrics.timer("school.getOrphanedAttendanceStudents");
+    
     private Map<String, Student> students;
     private Map<String, Teacher> teachers;
-    private List<Grade> grades;
-    private List<Attendance> attendanceRecords;
-    private int studentCounter;
-    private int teacherCounter;
-    private int gradeCounter;
-    private int attendanceCounter;
+    private final TrigramIndex studentSearch = new TrigramIndex(); // name, ID, grade
+    private final TrigramIndex teacherSearch = new TrigramIndex(); // name, ID, subject
+    private final ReadWriteLock gradeLock = new ReentrantReadWriteLock();
+    private Set<Grade> grades; // insertion order; Grade has identity equality, so removal is O(1)
+    private Map<String, List<Grade>> gradesByStudent; // studentId -> that student's grades
+    private Map<String, StudentGpa> gpaByStudent; // studentId -> running GPA aggregates
+    private NavigableMap<Long, List<Attendance>> attendanceByDay; // epoch day -> records for that day
+    private Map<String, List<Attendance>> attendanceByStudent; // studentId -> that student's records
+    private Map<String, AttendanceCalendar> calendarByStudent; // studentId -> day-indexed attendance counts
+    private final ReadWriteLock attendanceLock = new ReentrantReadWriteLock();
+    // Serialise updates to one student or teacher, striped by ID. The journal append
+    // happens under it so one record's journal entries stay in apply order; being a
+    // ReentrantLock, a virtual thread waiting there unmounts instead of pinning.
+    private final ReentrantLock[] recordLocks = new ReentrantLock[64];
+    private final AtomicInteger studentCounter;
+    private final AtomicInteger teacherCounter;
+    private final AtomicInteger gradeCounter;
+    private final AtomicInteger attendanceCounter;
+    private volatile Journal journal; // optional write-ahead log of every change
+    private List<DataChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private List<SchoolEventListener> eventListeners = new CopyOnWriteArrayList<>();
     
     public SchoolManagementSystem() {
-        students = new HashMap<>();
-        teachers = new HashMap<>();
-        grades = new ArrayList<>();
-        attendanceRecords = new ArrayList<>();
-        studentCounter = 1000;
-        teacherCounter = 100;
-        gradeCounter = 10000;
-        attendanceCounter = 50000;
+        students = new ConcurrentHashMap<>();
+        teachers = new ConcurrentHashMap<>();
+        grades = new LinkedHashSet<>();
+        gradesByStudent = new HashMap<>();
+        gpaByStudent = new HashMap<>();
+        attendanceByDay = new TreeMap<>();
+        attendanceByStudent = new HashMap<>();
+        calendarByStudent = new HashMap<>();
+        for (int i = 0; i < recordLocks.length; i++) {
+            recordLocks[i] = new ReentrantLock();
+        }
+        studentCounter = new AtomicInteger(1000);
+        teacherCounter = new AtomicInteger(100);
+        gradeCounter = new AtomicInteger(10000);
+        attendanceCounter = new AtomicInteger(50000);
+    }
+    
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+    
+    public void addChangeListener(DataChangeListener listener) {
+        changeListeners.add(listener);
+    }
+    
+    public void removeChangeListener(DataChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+    
+    public void addSchoolListener(SchoolEventListener listener) {
+        eventListeners.add(listener);
+    }
+    
+    public void removeSchoolListener(SchoolEventListener listener) {
+        eventListeners.remove(listener);
+    }
+    
+    private ReentrantLock recordLock(String id) {
+        return recordLocks[(id.hashCode() & 0x7fffffff) % recordLocks.length];
+    }
+    
+    // Called after a change is applied and before it is journaled. A save marks the
+    // journal before collecting dirty data sets, so any change whose journal record
+    // the save then discards is already in a data set that the save writes.
+    private void dataChanged(DataSet dataSet) {
+        for (DataChangeListener listener : changeListeners) {
+            listener.dataChanged(dataSet);
+        }
+    }
+    
+    // Called after the change is applied and journaled, outside the collection locks
+    private void publish(SchoolEvent.Type type, DataSet dataSet, Object entity) {
+        if (eventListeners.isEmpty()) return;
+        SchoolEvent event = new SchoolEvent(type, dataSet, entity);
+        for (SchoolEventListener listener : eventListeners) {
+            listener.schoolChanged(event);
+        }
+    }
+    
+    private void publishRemoved(DataSet dataSet, List<?> entities) {
+        for (Object entity : entities) {
+            publish(SchoolEvent.Type.REMOVED, dataSet, entity);
+        }
     }
     
     // Student Management
     public String addStudent(String firstName, String lastName, LocalDate dateOfBirth,
                            String gender, String grade, String parentName, String parentPhone,
                            String parentEmail, String address) {
-        String studentId = "STU" + (++studentCounter);
-        Student student = new Student(studentId, firstName, lastName, dateOfBirth, gender,
-                                    grade, parentName, parentPhone, parentEmail, address);
-        students.put(studentId, student);
-        return studentId;
+        long start = System.nanoTime();
+        try {
+            String studentId = "STU" + studentCounter.incrementAndGet();
+            Student student = new Student(studentId, firstName, lastName, dateOfBirth, gender,
+                                        grade, parentName, parentPhone, parentEmail, address);
+            students.put(studentId, student);
+            indexStudent(student);
+            dataChanged(DataSet.STUDENTS);
+            if (journal != null) journal.logStudent(student);
+            publish(SchoolEvent.Type.ADDED, DataSet.STUDENTS, student);
+            return studentId;
+        } finally {
+            ADD_STUDENT_TIMER.recordSince(start);
+        }
     }
     
     public boolean updateStudent(String studentId, String firstName, String lastName,
                                String grade, String parentName, String parentPhone,
                                String parentEmail, String address) {
-        Student student = students.get(studentId);
-        if (student != null) {
-            student.setFirstName(firstName);
-            student.setLastName(lastName);
-            student.setGrade(grade);
-            student.setParentName(parentName);
-            student.setParentPhone(parentPhone);
-            student.setParentEmail(parentEmail);
-            student.setAddress(address);
-            return true;
+        long start = System.nanoTime();
+        try {
+            Student student = students.get(studentId);
+            if (student != null) {
+                // Journal inside the lock so records for one student stay in apply order
+                ReentrantLock lock = recordLock(studentId);
+                lock.lock();
+                try {
+                    student.setFirstName(firstName);
+                    student.setLastName(lastName);
+                    student.setGrade(grade);
+                    student.setParentName(parentName);
+                    student.setParentPhone(parentPhone);
+                    student.setParentEmail(parentEmail);
+                    student.setAddress(address);
+                    indexStudent(student);
+                    dataChanged(DataSet.STUDENTS);
+                    if (journal != null) journal.logStudent(student);
+                } finally {
+                    lock.unlock();
+                }
+                publish(SchoolEvent.Type.UPDATED, DataSet.STUDENTS, student);
+                return true;
+            }
+            return false;
+        } finally {
+            UPDATE_STUDENT_TIMER.recordSince(start);
         }
-        return false;
     }
     
     public boolean removeStudent(String studentId) {
-        if (students.remove(studentId) != null) {
-            // Cascading delete - remove all related records
-            removeStudentGrades(studentId);
-            removeStudentAttendance(studentId);
-            return true;
+        long start = System.nanoTime();
+        try {
+            Student student = students.remove(studentId);
+            if (student != null) {
+                studentSearch.remove(studentId);
+                // Cascading delete - remove all related records
+                List<Grade> removedGrades = removeStudentGrades(studentId);
+                List<Attendance> removedAttendance = removeStudentAttendance(studentId);
+                dataChanged(DataSet.STUDENTS);
+                if (!removedGrades.isEmpty()) dataChanged(DataSet.GRADES);
+                if (!removedAttendance.isEmpty()) dataChanged(DataSet.ATTENDANCE);
+                if (journal != null) journal.logStudentRemoved(studentId);
+                publish(SchoolEvent.Type.REMOVED, DataSet.STUDENTS, student);
+                publishRemoved(DataSet.GRADES, removedGrades);
+                publishRemoved(DataSet.ATTENDANCE, removedAttendance);
+                return true;
+            }
+            return false;
+        } finally {
+            REMOVE_STUDENT_TIMER.recordSince(start);
         }
-        return false;
     }
     
-    private void removeStudentGrades(String studentId) {
-        grades.removeIf(grade -> grade.getStudentId().equals(studentId));
+    // The grades and attendance of studentId, whether or not the student exists. For
+    // journal replay: a snapshot taken after a student was removed may be followed by
+    // records for that student and then the removal, which finds no student to cascade from.
+    void removeStudentRecords(String studentId) {
+        List<Grade> removedGrades = removeStudentGrades(studentId);
+        List<Attendance> removedAttendance = removeStudentAttendance(studentId);
+        if (!removedGrades.isEmpty()) dataChanged(DataSet.GRADES);
+        if (!removedAttendance.isEmpty()) dataChanged(DataSet.ATTENDANCE);
+        publishRemoved(DataSet.GRADES, removedGrades);
+        publishRemoved(DataSet.ATTENDANCE, removedAttendance);
+    }
+    
+    private List<Grade> removeStudentGrades(String studentId) {
+        gradeLock.writeLock().lock();
+        try {
+            return unindexStudentGradesLocked(studentId);
+        } finally {
+            gradeLock.writeLock().unlock();
+        }
     }
     
-    private void removeStudentAttendance(String studentId) {
-        attendanceRecords.removeIf(attendance -> attendance.getStudentId().equals(studentId));
+    private List<Attendance> removeStudentAttendance(String studentId) {
+        attendanceLock.writeLock().lock();
+        try {
+            return unindexStudentAttendanceLocked(studentId);
+        } finally {
+            attendanceLock.writeLock().unlock();
+        }
+    }
+    
+    // Caller holds the grade write lock. Returns the student's grades, now unindexed.
+    private List<Grade> unindexStudentGradesLocked(String studentId) {
+        List<Grade> removed = gradesByStudent.remove(studentId);
+        gpaByStudent.remove(studentId);
+        if (removed == null) return Collections.emptyList();
+        for (Grade grade : removed) {
+            grade.setPercentageListener(null);
+            grades.remove(grade);
+        }
+        return removed;
+    }
+    
+    // Caller holds the attendance write lock. Only the days the student has records
+    // on are touched. Returns the student's records, now unindexed.
+    private List<Attendance> unindexStudentAttendanceLocked(String studentId) {
+        calendarByStudent.remove(studentId);
+        List<Attendance> removed = attendanceByStudent.remove(studentId);
+        if (removed == null) return Collections.emptyList();
+        for (Attendance attendance : removed) {
+            attendance.setStatusListener(null);
+            long epochDay = attendance.getDate().toEpochDay();
+            List<Attendance> day = attendanceByDay.get(epochDay);
+            if (day == null) continue;
+            // By identity, within that one day
+            for (int i = 0; i < day.size(); i++) {
+                if (day.get(i) == attendance) {
+                    day.remove(i);
+                    break;
+                }
+            }
+            if (day.isEmpty()) {
+                attendanceByDay.remove(epochDay);
+            }
+        }
+        return removed;
     }
     
     public Student getStudent(String studentId) {
@@ -73,54 +286,98 @@ public class SchoolManagementSystem {
     }
     
     public List<Student> getAllStudents() {
-        return new ArrayList<>(students.values());
+        long start = System.nanoTime();
+        try {
+            return new ArrayList<>(students.values());
+        } finally {
+            GET_ALL_STUDENTS_TIMER.recordSince(start);
+        }
     }
     
     public List<Student> getStudentsByGrade(String grade) {
-        List<Student> result = new ArrayList<>();
-        for (Student student : students.values()) {
-            if (student.getGrade().equals(grade)) {
-                result.add(student);
+        long start = System.nanoTime();
+        try {
+            List<Student> result = new ArrayList<>();
+            for (Student student : students.values()) {
+                if (student.getGrade().equals(grade)) {
+                    result.add(student);
+                }
             }
+            return result;
+        } finally {
+            GET_STUDENTS_BY_GRADE_TIMER.recordSince(start);
         }
-        return result;
     }
     
     // Teacher Management
     public String addTeacher(String firstName, String lastName, String email, String phone,
                            String subject, String qualification, double salary, String address) {
-        String teacherId = "TEA" + (++teacherCounter);
-        Teacher teacher = new Teacher(teacherId, firstName, lastName, email, phone,
-                                    subject, qualification, salary, address);
-        teachers.put(teacherId, teacher);
-        return teacherId;
+        long start = System.nanoTime();
+        try {
+            String teacherId = "TEA" + teacherCounter.incrementAndGet();
+            Teacher teacher = new Teacher(teacherId, firstName, lastName, email, phone,
+                                        subject, qualification, salary, address);
+            teachers.put(teacherId, teacher);
+            indexTeacher(teacher);
+            dataChanged(DataSet.TEACHERS);
+            if (journal != null) journal.logTeacher(teacher);
+            publish(SchoolEvent.Type.ADDED, DataSet.TEACHERS, teacher);
+            return teacherId;
+        } finally {
+            ADD_TEACHER_TIMER.recordSince(start);
+        }
     }
     
     public boolean updateTeacher(String teacherId, String firstName, String lastName,
                                String email, String phone, String subject, String qualification,
                                double salary, String address) {
-        Teacher teacher = teachers.get(teacherId);
-        if (teacher != null) {
-            teacher.setFirstName(firstName);
-            teacher.setLastName(lastName);
-            teacher.setEmail(email);
-            teacher.setPhone(phone);
-            teacher.setSubject(subject);
-            teacher.setQualification(qualification);
-            teacher.setSalary(salary);
-            teacher.setAddress(address);
-            return true;
+        long start = System.nanoTime();
+        try {
+            Teacher teacher = teachers.get(teacherId);
+            if (teacher != null) {
+                ReentrantLock lock = recordLock(teacherId);
+                lock.lock();
+                try {
+                    teacher.setFirstName(firstName);
+                    teacher.setLastName(lastName);
+                    teacher.setEmail(email);
+                    teacher.setPhone(phone);
+                    teacher.setSubject(subject);
+                    teacher.setQualification(qualification);
+                    teacher.setSalary(salary);
+                    teacher.setAddress(address);
+                    indexTeacher(teacher);
+                    dataChanged(DataSet.TEACHERS);
+                    if (journal != null) journal.logTeacher(teacher);
+                } finally {
+                    lock.unlock();
+                }
+                publish(SchoolEvent.Type.UPDATED, DataSet.TEACHERS, teacher);
+                return true;
+            }
+            return false;
+        } finally {
+            UPDATE_TEACHER_TIMER.recordSince(start);
         }
-        return false;
     }
     
     public boolean removeTeacher(String teacherId) {
-        if (teachers.remove(teacherId) != null) {
-            // Note: In a real system, you might want to reassign grades to another teacher
-            // For now, we'll keep the grades but the teacher reference will be invalid
-            return true;
+        long start = System.nanoTime();
+        try {
+            Teacher teacher = teachers.remove(teacherId);
+            if (teacher != null) {
+                teacherSearch.remove(teacherId);
+                // Note: In a real system, you might want to reassign grades to another teacher
+                // For now, we'll keep the grades but the teacher reference will be invalid
+                dataChanged(DataSet.TEACHERS);
+                if (journal != null) journal.logTeacherRemoved(teacherId);
+                publish(SchoolEvent.Type.REMOVED, DataSet.TEACHERS, teacher);
+                return true;
+            }
+            return false;
+        } finally {
+            REMOVE_TEACHER_TIMER.recordSince(start);
         }
-        return false;
     }
     
     public Teacher getTeacher(String teacherId) {
@@ -128,249 +385,727 @@ public class SchoolManagementSystem {
     }
     
     public List<Teacher> getAllTeachers() {
-        return new ArrayList<>(teachers.values());
+        long start = System.nanoTime();
+        try {
+            return new ArrayList<>(teachers.values());
+        } finally {
+            GET_ALL_TEACHERS_TIMER.recordSince(start);
+        }
     }
     
     // Grade Management
     public String addGrade(String studentId, String subject, String examType,
                          double marks, double totalMarks, String semester, String academicYear) {
-        String gradeId = "GRD" + (++gradeCounter);
-        Grade grade = new Grade(gradeId, studentId, subject, examType, marks, totalMarks,
-                              semester, academicYear);
+        long start = System.nanoTime();
+        FlightEvents.AddGrade event = new FlightEvents.AddGrade();
+        event.begin();
+        try {
+            String gradeId = "GRD" + gradeCounter.incrementAndGet();
+            Grade grade = new Grade(gradeId, studentId, subject, examType, marks, totalMarks,
+                                  semester, academicYear);
+            indexGrade(grade);
+            dataChanged(DataSet.GRADES);
+            if (journal != null) journal.logGrade(grade);
+            publish(SchoolEvent.Type.ADDED, DataSet.GRADES, grade);
+            event.end(studentId, gradeId, subject);
+            return gradeId;
+        } finally {
+            ADD_GRADE_TIMER.recordSince(start);
+        }
+    }
+    
+    private void indexGrade(Grade grade) {
+        gradeLock.writeLock().lock();
+        try {
+            indexGradeLocked(grade);
+        } finally {
+            gradeLock.writeLock().unlock();
+        }
+    }
+    
+    private void indexGradeLocked(Grade grade) {
         grades.add(grade);
-        return gradeId;
+        gradesByStudent.computeIfAbsent(grade.getStudentId(), id -> new ArrayList<>()).add(grade);
+        gpaByStudent.computeIfAbsent(grade.getStudentId(), id -> new StudentGpa())
+                    .add(grade, grade.getPercentage());
+        grade.setPercentageListener(this::onGradePercentageChanged);
+    }
+    
+    private void onGradePercentageChanged(Grade grade, double oldPercentage) {
+        gradeLock.writeLock().lock();
+        try {
+            StudentGpa gpa = gpaByStudent.get(grade.getStudentId());
+            if (gpa != null) {
+                gpa.remove(grade, oldPercentage);
+                gpa.add(grade, grade.getPercentage());
+            }
+        } finally {
+            gradeLock.writeLock().unlock();
+        }
+        dataChanged(DataSet.GRADES);
+        if (journal != null) journal.logGrade(grade);
+        publish(SchoolEvent.Type.UPDATED, DataSet.GRADES, grade);
+    }
+    
+    // Live bucket for a student; caller holds the grade lock and must not modify it
+    private List<Grade> gradeBucket(String studentId) {
+        List<Grade> bucket = gradesByStudent.get(studentId);
+        return bucket != null ? bucket : Collections.emptyList();
+    }
+    
+    Grade findGrade(String studentId, String gradeId) {
+        gradeLock.readLock().lock();
+        try {
+            for (Grade grade : gradeBucket(studentId)) {
+                if (grade.getGradeId().equals(gradeId)) return grade;
+            }
+            return null;
+        } finally {
+            gradeLock.readLock().unlock();
+        }
     }
     
     public List<Grade> getStudentGrades(String studentId) {
-        List<Grade> result = new ArrayList<>();
-        for (Grade grade : grades) {
-            if (grade.getStudentId().equals(studentId)) {
-                result.add(grade);
+        long start = System.nanoTime();
+        try {
+            gradeLock.readLock().lock();
+            try {
+                return new ArrayList<>(gradeBucket(studentId));
+            } finally {
+                gradeLock.readLock().unlock();
             }
+        } finally {
+            GET_STUDENT_GRADES_TIMER.recordSince(start);
         }
-        return result;
     }
     
     public List<Grade> getAllGrades() {
-        return new ArrayList<>(grades);
+        long start = System.nanoTime();
+        try {
+            gradeLock.readLock().lock();
+            try {
+                return new ArrayList<>(grades);
+            } finally {
+                gradeLock.readLock().unlock();
+            }
+        } finally {
+            GET_ALL_GRADES_TIMER.recordSince(start);
+        }
     }
     
     public double calculateStudentGPA(String studentId, String semester, String academicYear) {
-        List<Grade> studentGrades = new ArrayList<>();
-        for (Grade grade : grades) {
-            if (grade.getStudentId().equals(studentId) && 
-                grade.getSemester().equals(semester) &&
-                grade.getAcademicYear().equals(academicYear)) {
-                studentGrades.add(grade);
+        long start = System.nanoTime();
+        FlightEvents.GpaCalculation event = new FlightEvents.GpaCalculation();
+        event.begin();
+        try {
+            gradeLock.readLock().lock();
+            try {
+                StudentGpa gpa = gpaByStudent.get(studentId);
+                double result = gpa != null ? gpa.getTermGPA(semester, academicYear) : 0.0;
+                event.end(studentId, "term", null, semester, academicYear, gpa != null ? gpa.getGradeCount() : 0, result);
+                return result;
+            } finally {
+                gradeLock.readLock().unlock();
             }
+        } finally {
+            CALCULATE_STUDENT_GPA_TIMER.recordSince(start);
         }
-        
-        if (studentGrades.isEmpty()) return 0.0;
-        
-        double totalPercentage = 0;
-        for (Grade grade : studentGrades) {
-            totalPercentage += grade.getPercentage();
-        }
-        return totalPercentage / studentGrades.size();
     }
     
     // Calculate overall GPA for all grades of a student
     public double calculateOverallGPA(String studentId) {
-        List<Grade> studentGrades = getStudentGrades(studentId);
-        
-        if (studentGrades.isEmpty()) return 0.0;
-        
-        double totalPercentage = 0;
-        for (Grade grade : studentGrades) {
-            totalPercentage += grade.getPercentage();
+        long start = System.nanoTime();
+        FlightEvents.GpaCalculation event = new FlightEvents.GpaCalculation();
+        event.begin();
+        try {
+            gradeLock.readLock().lock();
+            try {
+                StudentGpa gpa = gpaByStudent.get(studentId);
+                double result = gpa != null ? gpa.getOverallGPA() : 0.0;
+                event.end(studentId, "overall", null, null, null, gpa != null ? gpa.getGradeCount() : 0, result);
+                return result;
+            } finally {
+                gradeLock.readLock().unlock();
+            }
+        } finally {
+            CALCULATE_OVERALL_GPA_TIMER.recordSince(start);
         }
-        return totalPercentage / studentGrades.size();
     }
     
     // Get GPA by subject for a student
     public double calculateSubjectGPA(String studentId, String subject) {
-        List<Grade> subjectGrades = new ArrayList<>();
-        for (Grade grade : grades) {
-            if (grade.getStudentId().equals(studentId) && grade.getSubject().equals(subject)) {
-                subjectGrades.add(grade);
+        long start = System.nanoTime();
+        FlightEvents.GpaCalculation event = new FlightEvents.GpaCalculation();
+        event.begin();
+        try {
+            gradeLock.readLock().lock();
+            try {
+                StudentGpa gpa = gpaByStudent.get(studentId);
+                double result = gpa != null ? gpa.getSubjectGPA(subject) : 0.0;
+                event.end(studentId, "subject", subject, null, null, gpa != null ? gpa.getGradeCount() : 0, result);
+                return result;
+            } finally {
+                gradeLock.readLock().unlock();
             }
+        } finally {
+            CALCULATE_SUBJECT_GPA_TIMER.recordSince(start);
         }
-        
-        if (subjectGrades.isEmpty()) return 0.0;
-        
-        double totalPercentage = 0;
-        for (Grade grade : subjectGrades) {
-            totalPercentage += grade.getPercentage();
-        }
-        return totalPercentage / subjectGrades.size();
     }
     
     // Attendance Management
     public String markAttendance(String studentId, LocalDate date, String status, String remarks) {
-        String attendanceId = "ATT" + (++attendanceCounter);
-        Attendance attendance = new Attendance(attendanceId, studentId, date, status, remarks);
-        attendanceRecords.add(attendance);
-        return attendanceId;
+        long start = System.nanoTime();
+        FlightEvents.MarkAttendance event = new FlightEvents.MarkAttendance();
+        event.begin();
+        try {
+            String attendanceId = "ATT" + attendanceCounter.incrementAndGet();
+            Attendance attendance = new Attendance(attendanceId, studentId, date, status, remarks);
+            indexAttendance(attendance);
+            dataChanged(DataSet.ATTENDANCE);
+            if (journal != null) journal.logAttendance(attendance);
+            publish(SchoolEvent.Type.ADDED, DataSet.ATTENDANCE, attendance);
+            event.end(studentId, attendanceId, date, status);
+            return attendanceId;
+        } finally {
+            MARK_ATTENDANCE_TIMER.recordSince(start);
+        }
+    }
+    
+    private void indexAttendance(Attendance attendance) {
+        attendanceLock.writeLock().lock();
+        try {
+            indexAttendanceLocked(attendance, attendanceByDay.computeIfAbsent(
+                    attendance.getDate().toEpochDay(), day -> new ArrayList<>()));
+        } finally {
+            attendanceLock.writeLock().unlock();
+        }
+    }
+    
+    // day is the attendanceByDay partition for the record's date
+    private void indexAttendanceLocked(Attendance attendance, List<Attendance> day) {
+        day.add(attendance);
+        attendanceByStudent.computeIfAbsent(attendance.getStudentId(), id -> new ArrayList<>()).add(attendance);
+        calendarByStudent.computeIfAbsent(attendance.getStudentId(), id -> new AttendanceCalendar())
+                         .record(attendance.getDate(), attendance.getStatus());
+        attendance.setStatusListener(this::onAttendanceStatusChanged);
+    }
+    
+    private void onAttendanceStatusChanged(Attendance attendance, String oldStatus) {
+        attendanceLock.writeLock().lock();
+        try {
+            AttendanceCalendar calendar = calendarByStudent.get(attendance.getStudentId());
+            if (calendar != null) {
+                calendar.statusChanged(attendance.getDate(), oldStatus, attendance.getStatus());
+            }
+        } finally {
+            attendanceLock.writeLock().unlock();
+        }
+        dataChanged(DataSet.ATTENDANCE);
+        if (journal != null) journal.logAttendance(attendance);
+        publish(SchoolEvent.Type.UPDATED, DataSet.ATTENDANCE, attendance);
+    }
+    
+    Attendance findAttendance(LocalDate date, String attendanceId) {
+        attendanceLock.readLock().lock();
+        try {
+            List<Attendance> day = attendanceByDay.get(date.toEpochDay());
+            if (day == null) return null;
+            for (Attendance attendance : day) {
+                if (attendance.getAttendanceId().equals(attendanceId)) return attendance;
+            }
+            return null;
+        } finally {
+            attendanceLock.readLock().unlock();
+        }
     }
     
     public List<Attendance> getStudentAttendance(String studentId) {
-        List<Attendance> result = new ArrayList<>();
-        for (Attendance attendance : attendanceRecords) {
-            if (attendance.getStudentId().equals(studentId)) {
-                result.add(attendance);
+        long start = System.nanoTime();
+        try {
+            List<Attendance> result;
+            attendanceLock.readLock().lock();
+            try {
+                List<Attendance> records = attendanceByStudent.get(studentId);
+                result = records != null ? new ArrayList<>(records) : new ArrayList<>();
+            } finally {
+                attendanceLock.readLock().unlock();
             }
+            // Oldest first, as before; records marked on one day keep their order
+            result.sort(Comparator.comparing(Attendance::getDate));
+            return result;
+        } finally {
+            GET_STUDENT_ATTENDANCE_TIMER.recordSince(start);
         }
-        return result;
     }
     
     public List<Attendance> getAttendanceByDate(LocalDate date) {
-        List<Attendance> result = new ArrayList<>();
-        for (Attendance attendance : attendanceRecords) {
-            if (attendance.getDate().equals(date)) {
-                result.add(attendance);
+        long start = System.nanoTime();
+        try {
+            attendanceLock.readLock().lock();
+            try {
+                List<Attendance> day = attendanceByDay.get(date.toEpochDay());
+                return day != null ? new ArrayList<>(day) : new ArrayList<>();
+            } finally {
+                attendanceLock.readLock().unlock();
             }
+        } finally {
+            GET_ATTENDANCE_BY_DATE_TIMER.recordSince(start);
         }
-        return result;
     }
     
-    public double calculateAttendancePercentage(String studentId, LocalDate startDate, LocalDate endDate) {
-        int totalDays = 0;
-        int presentDays = 0;
-        
-        for (Attendance attendance : attendanceRecords) {
-            if (attendance.getStudentId().equals(studentId) &&
-                !attendance.getDate().isBefore(startDate) &&
-                !attendance.getDate().isAfter(endDate)) {
-                totalDays++;
-                if (attendance.getStatus().equals("Present") || attendance.getStatus().equals("Late")) {
-                    presentDays++;
+    // All records dated between startDate and endDate (inclusive), oldest first
+    public List<Attendance> getAttendanceBetween(LocalDate startDate, LocalDate endDate) {
+        long start = System.nanoTime();
+        try {
+            List<Attendance> result = new ArrayList<>();
+            if (startDate.isAfter(endDate)) return result;
+            
+            attendanceLock.readLock().lock();
+            try {
+                for (List<Attendance> day : attendanceByDay.subMap(startDate.toEpochDay(), true,
+                                                                   endDate.toEpochDay(), true).values()) {
+                    result.addAll(day);
+                }
+            } finally {
+                attendanceLock.readLock().unlock();
+            }
+            return result;
+        } finally {
+            GET_ATTENDANCE_BETWEEN_TIMER.recordSince(start);
+        }
+    }
+    
+    // Visit every record in date order without copying the store.
+    // Runs under the attendance read lock, so writers wait until it returns.
+    public void forEachAttendance(java.util.function.Consumer<Attendance> action) {
+        attendanceLock.readLock().lock();
+        try {
+            for (List<Attendance> day : attendanceByDay.values()) {
+                for (Attendance attendance : day) {
+                    action.accept(attendance);
                 }
             }
+        } finally {
+            attendanceLock.readLock().unlock();
+        }
+    }
+    
+    // Passes a copy of each day's records to action, in date order. The read lock is
+    // held only while one day is copied, so a long export or file write done by action
+    // does not hold up markAttendance. Days added or removed meanwhile may or may not be seen.
+    public void forEachAttendanceDay(java.util.function.Consumer<List<Attendance>> action) {
+        Long day = null;
+        while (true) {
+            List<Attendance> copy;
+            attendanceLock.readLock().lock();
+            try {
+                Map.Entry<Long, List<Attendance>> entry =
+                        day == null ? attendanceByDay.firstEntry() : attendanceByDay.higherEntry(day);
+                if (entry == null) return;
+                day = entry.getKey();
+                copy = new ArrayList<>(entry.getValue());
+            } finally {
+                attendanceLock.readLock().unlock();
+            }
+            action.accept(copy);
+        }
+    }
+    
+    public List<Attendance> getAllAttendance() {
+        long start = System.nanoTime();
+        try {
+            List<Attendance> result = new ArrayList<>();
+            attendanceLock.readLock().lock();
+            try {
+                for (List<Attendance> day : attendanceByDay.values()) {
+                    result.addAll(day);
+                }
+            } finally {
+                attendanceLock.readLock().unlock();
+            }
+            return result;
+        } finally {
+            GET_ALL_ATTENDANCE_TIMER.recordSince(start);
+        }
+    }
+    
+    public double calculateAttendancePercentage(String studentId, LocalDate startDate, LocalDate endDate) {
+        long start = System.nanoTime();
+        try {
+            attendanceLock.readLock().lock();
+            try {
+                AttendanceCalendar calendar = calendarByStudent.get(studentId);
+                return calendar != null ? calendar.percentage(startDate, endDate) : 0.0;
+            } finally {
+                attendanceLock.readLock().unlock();
+            }
+        } finally {
+            CALCULATE_ATTENDANCE_PERCENTAGE_TIMER.recordSince(start);
         }
-        
-        return totalDays > 0 ? (double) presentDays / totalDays * 100 : 0.0;
     }
     
     // Fee Management
     public boolean addFeePayment(String studentId, double amount) {
-        Student student = students.get(studentId);
-        if (student != null) {
-            student.addFeePayment(amount);
-            return true;
+        long start = System.nanoTime();
+        try {
+            Student student = students.get(studentId);
+            if (student != null) {
+                ReentrantLock lock = recordLock(studentId);
+                lock.lock();
+                try {
+                    student.addFeePayment(amount);
+                    dataChanged(DataSet.STUDENTS);
+                    if (journal != null) journal.logStudent(student);
+                } finally {
+                    lock.unlock();
+                }
+                publish(SchoolEvent.Type.UPDATED, DataSet.STUDENTS, student);
+                return true;
+            }
+            return false;
+        } finally {
+            ADD_FEE_PAYMENT_TIMER.recordSince(start);
         }
-        return false;
     }
     
     public boolean setStudentFees(String studentId, double totalFees) {
-        Student student = students.get(studentId);
-        if (student != null) {
-            student.setFeesTotal(totalFees);
-            return true;
+        long start = System.nanoTime();
+        try {
+            Student student = students.get(studentId);
+            if (student != null) {
+                ReentrantLock lock = recordLock(studentId);
+                lock.lock();
+                try {
+                    student.setFeesTotal(totalFees);
+                    dataChanged(DataSet.STUDENTS);
+                    if (journal != null) journal.logStudent(student);
+                } finally {
+                    lock.unlock();
+                }
+                publish(SchoolEvent.Type.UPDATED, DataSet.STUDENTS, student);
+                return true;
+            }
+            return false;
+        } finally {
+            SET_STUDENT_FEES_TIMER.recordSince(start);
         }
-        return false;
     }
     
     public List<Student> getStudentsWithOutstandingFees() {
-        List<Student> result = new ArrayList<>();
-        for (Student student : students.values()) {
-            if (student.getOutstandingFees() > 0) {
-                result.add(student);
+        long start = System.nanoTime();
+        try {
+            List<Student> result = new ArrayList<>();
+            for (Student student : students.values()) {
+                if (student.getOutstandingFees() > 0) {
+                    result.add(student);
+                }
             }
+            return result;
+        } finally {
+            GET_STUDENTS_WITH_OUTSTANDING_FEES_TIMER.recordSince(start);
         }
-        return result;
     }
     
     // Search functionality
+    // Students whose name, ID or grade contains keyword (case-insensitive)
     public List<Student> searchStudents(String keyword) {
-        List<Student> results = new ArrayList<>();
-        String lowerKeyword = keyword.toLowerCase();
-        
-        for (Student student : students.values()) {
-            if (student.getFullName().toLowerCase().contains(lowerKeyword) ||
-                student.getStudentId().toLowerCase().contains(lowerKeyword) ||
-                student.getGrade().toLowerCase().contains(lowerKeyword)) {
-                results.add(student);
+        long start = System.nanoTime();
+        FlightEvents.Search event = new FlightEvents.Search();
+        event.begin();
+        try {
+            List<Student> results = new ArrayList<>();
+            for (String studentId : studentSearch.search(keyword)) {
+                Student student = students.get(studentId);
+                if (student != null) results.add(student);
             }
+            event.end("students", keyword, results.size());
+            return results;
+        } finally {
+            SEARCH_STUDENTS_TIMER.recordSince(start);
         }
-        return results;
     }
     
+    // Teachers whose name, ID or subject contains keyword (case-insensitive)
     public List<Teacher> searchTeachers(String keyword) {
-        List<Teacher> results = new ArrayList<>();
-        String lowerKeyword = keyword.toLowerCase();
-        
-        for (Teacher teacher : teachers.values()) {
-            if (teacher.getFullName().toLowerCase().contains(lowerKeyword) ||
-                teacher.getTeacherId().toLowerCase().contains(lowerKeyword) ||
-                teacher.getSubject().toLowerCase().contains(lowerKeyword)) {
-                results.add(teacher);
+        long start = System.nanoTime();
+        FlightEvents.Search event = new FlightEvents.Search();
+        event.begin();
+        try {
+            List<Teacher> results = new ArrayList<>();
+            for (String teacherId : teacherSearch.search(keyword)) {
+                Teacher teacher = teachers.get(teacherId);
+                if (teacher != null) results.add(teacher);
             }
+            event.end("teachers", keyword, results.size());
+            return results;
+        } finally {
+            SEARCH_TEACHERS_TIMER.recordSince(start);
+        }
+    }
+    
+    private void indexStudent(Student student) {
+        studentSearch.put(student.getStudentId(), student.getFullName(), student.getStudentId(), student.getGrade());
+    }
+    
+    private void indexTeacher(Teacher teacher) {
+        teacherSearch.put(teacher.getTeacherId(), teacher.getFullName(), teacher.getTeacherId(), teacher.getSubject());
+    }
+    
+    // Record counts, for the size gauges in Metrics
+    public int getStudentCount() {
+        return students.size();
+    }
+    
+    public int getTeacherCount() {
+        return teachers.size();
+    }
+    
+    public int getGradeCount() {
+        gradeLock.readLock().lock();
+        try {
+            return grades.size();
+        } finally {
+            gradeLock.readLock().unlock();
+        }
+    }
+    
+    public int getAttendanceCount() {
+        attendanceLock.readLock().lock();
+        try {
+            int count = 0;
+            for (List<Attendance> day : attendanceByDay.values()) {
+                count += day.size();
+            }
+            return count;
+        } finally {
+            attendanceLock.readLock().unlock();
         }
-        return results;
     }
     
     public Set<String> getGrades() {
-        Set<String> gradeSet = new HashSet<>();
-        for (Student student : students.values()) {
-            gradeSet.add(student.getGrade());
+        long start = System.nanoTime();
+        try {
+            Set<String> gradeSet = new HashSet<>();
+            for (Student student : students.values()) {
+                gradeSet.add(student.getGrade());
+            }
+            return gradeSet;
+        } finally {
+            GET_GRADES_TIMER.recordSince(start);
         }
-        return gradeSet;
     }
     
     public Set<String> getSubjects() {
-        Set<String> subjectSet = new HashSet<>();
-        for (Teacher teacher : teachers.values()) {
-            subjectSet.add(teacher.getSubject());
-        }
-        for (Grade grade : grades) {
-            subjectSet.add(grade.getSubject());
+        long start = System.nanoTime();
+        try {
+            Set<String> subjectSet = new HashSet<>();
+            for (Teacher teacher : teachers.values()) {
+                subjectSet.add(teacher.getSubject());
+            }
+            gradeLock.readLock().lock();
+            try {
+                for (Grade grade : grades) {
+                    subjectSet.add(grade.getSubject());
+                }
+            } finally {
+                gradeLock.readLock().unlock();
+            }
+            return subjectSet;
+        } finally {
+            GET_SUBJECTS_TIMER.recordSince(start);
         }
-        return subjectSet;
     }
     
     // Methods for loading existing data
+    // Counters move past loaded IDs so new records never reuse them
     public void addExistingStudent(Student student) {
-        students.put(student.getStudentId(), student);
+        Student previous = students.put(student.getStudentId(), student);
+        indexStudent(student);
+        dataChanged(DataSet.STUDENTS);
+        publish(previous != null ? SchoolEvent.Type.UPDATED : SchoolEvent.Type.ADDED, DataSet.STUDENTS, student);
+        studentCounter.accumulateAndGet(idNumber(student.getStudentId(), "STU"), Math::max);
     }
     
     public void addExistingTeacher(Teacher teacher) {
-        teachers.put(teacher.getTeacherId(), teacher);
+        Teacher previous = teachers.put(teacher.getTeacherId(), teacher);
+        indexTeacher(teacher);
+        dataChanged(DataSet.TEACHERS);
+        publish(previous != null ? SchoolEvent.Type.UPDATED : SchoolEvent.Type.ADDED, DataSet.TEACHERS, teacher);
+        teacherCounter.accumulateAndGet(idNumber(teacher.getTeacherId(), "TEA"), Math::max);
     }
     
     public void addExistingGrade(Grade grade) {
-        grades.add(grade);
+        indexGrade(grade);
+        dataChanged(DataSet.GRADES);
+        publish(SchoolEvent.Type.ADDED, DataSet.GRADES, grade);
+        gradeCounter.accumulateAndGet(idNumber(grade.getGradeId(), "GRD"), Math::max);
     }
     
     public void addExistingAttendance(Attendance attendance) {
-        attendanceRecords.add(attendance);
+        indexAttendance(attendance);
+        dataChanged(DataSet.ATTENDANCE);
+        publish(SchoolEvent.Type.ADDED, DataSet.ATTENDANCE, attendance);
+        attendanceCounter.accumulateAndGet(idNumber(attendance.getAttendanceId(), "ATT"), Math::max);
+    }
+    
+    // Bulk forms of the above, for loading snapshots: a batch takes its lock once and
+    // marks its data set dirty once. Batches of different entity types may be added
+    // from different threads at the same time.
+    public void addExistingStudents(List<Student> batch) {
+        int maxId = 0;
+        for (Student student : batch) {
+            Student previous = students.put(student.getStudentId(), student);
+            indexStudent(student);
+            publish(previous != null ? SchoolEvent.Type.UPDATED : SchoolEvent.Type.ADDED, DataSet.STUDENTS, student);
+            maxId = Math.max(maxId, idNumber(student.getStudentId(), "STU"));
+        }
+        if (batch.isEmpty()) return;
+        dataChanged(DataSet.STUDENTS);
+        studentCounter.accumulateAndGet(maxId, Math::max);
+    }
+    
+    public void addExistingTeachers(List<Teacher> batch) {
+        int maxId = 0;
+        for (Teacher teacher : batch) {
+            Teacher previous = teachers.put(teacher.getTeacherId(), teacher);
+            indexTeacher(teacher);
+            publish(previous != null ? SchoolEvent.Type.UPDATED : SchoolEvent.Type.ADDED, DataSet.TEACHERS, teacher);
+            maxId = Math.max(maxId, idNumber(teacher.getTeacherId(), "TEA"));
+        }
+        if (batch.isEmpty()) return;
+        dataChanged(DataSet.TEACHERS);
+        teacherCounter.accumulateAndGet(maxId, Math::max);
+    }
+    
+    public void addExistingGrades(List<Grade> batch) {
+        if (batch.isEmpty()) return;
+        int maxId = 0;
+        gradeLock.writeLock().lock();
+        try {
+            for (Grade grade : batch) {
+                indexGradeLocked(grade);
+                maxId = Math.max(maxId, idNumber(grade.getGradeId(), "GRD"));
+            }
+        } finally {
+            gradeLock.writeLock().unlock();
+        }
+        dataChanged(DataSet.GRADES);
+        gradeCounter.accumulateAndGet(maxId, Math::max);
+        if (!eventListeners.isEmpty()) {
+            for (Grade grade : batch) publish(SchoolEvent.Type.ADDED, DataSet.GRADES, grade);
+        }
+    }
+    
+    // Snapshots are in date order, so the day partition is looked up once per day
+    public void addExistingAttendance(List<Attendance> batch) {
+        if (batch.isEmpty()) return;
+        int maxId = 0;
+        attendanceLock.writeLock().lock();
+        try {
+            long currentDay = Long.MIN_VALUE;
+            List<Attendance> day = null;
+            for (Attendance attendance : batch) {
+                long epochDay = attendance.getDate().toEpochDay();
+                if (epochDay != currentDay) {
+                    day = attendanceByDay.computeIfAbsent(epochDay, d -> new ArrayList<>());
+                    currentDay = epochDay;
+                }
+                indexAttendanceLocked(attendance, day);
+                maxId = Math.max(maxId, idNumber(attendance.getAttendanceId(), "ATT"));
+            }
+        } finally {
+            attendanceLock.writeLock().unlock();
+        }
+        dataChanged(DataSet.ATTENDANCE);
+        attendanceCounter.accumulateAndGet(maxId, Math::max);
+        if (!eventListeners.isEmpty()) {
+            for (Attendance attendance : batch) publish(SchoolEvent.Type.ADDED, DataSet.ATTENDANCE, attendance);
+        }
+    }
+    
+    private static int idNumber(String id, String prefix) {
+        try {
+            return id.startsWith(prefix) ? Integer.parseInt(id.substring(prefix.length())) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
     
     // Data integrity methods
     public void cleanupOrphanedRecords() {
+        long start = System.nanoTime();
+        try {
             // Remove grades for non-existent students
-        grades.removeIf(grade -> !students.containsKey(grade.getStudentId()));
-        
-        // Remove attendance for non-existent students
-        attendanceRecords.removeIf(attendance -> !students.containsKey(attendance.getStudentId()));
+            List<Grade> removedGrades = new ArrayList<>();
+            gradeLock.writeLock().lock();
+            try {
+                for (String studentId : new ArrayList<>(gradesByStudent.keySet())) {
+                    if (!students.containsKey(studentId)) {
+                        removedGrades.addAll(unindexStudentGradesLocked(studentId));
+                    }
+                }
+            } finally {
+                gradeLock.writeLock().unlock();
+            }
+            
+            // Remove attendance for non-existent students
+            List<Attendance> removedAttendance = new ArrayList<>();
+            attendanceLock.writeLock().lock();
+            try {
+                for (String studentId : new ArrayList<>(attendanceByStudent.keySet())) {
+                    if (!students.containsKey(studentId)) {
+                        removedAttendance.addAll(unindexStudentAttendanceLocked(studentId));
+                    }
+                }
+            } finally {
+                attendanceLock.writeLock().unlock();
+            }
+            if (!removedGrades.isEmpty()) dataChanged(DataSet.GRADES);
+            if (!removedAttendance.isEmpty()) dataChanged(DataSet.ATTENDANCE);
+            publishRemoved(DataSet.GRADES, removedGrades);
+            publishRemoved(DataSet.ATTENDANCE, removedAttendance);
+        } finally {
+            CLEANUP_ORPHANED_RECORDS_TIMER.recordSince(start);
+        }
     }
     
     public List<String> getOrphanedGradeStudents() {
-        List<String> orphaned = new ArrayList<>();
-        for (Grade grade : grades) {
-            if (!students.containsKey(grade.getStudentId()) && !orphaned.contains(grade.getStudentId())) {
-                orphaned.add(grade.getStudentId());
+        long start = System.nanoTime();
+        try {
+            List<String> orphaned = new ArrayList<>();
+            gradeLock.readLock().lock();
+            try {
+                for (String studentId : gradesByStudent.keySet()) {
+                    if (!students.containsKey(studentId)) {
+                        orphaned.add(studentId);
+                    }
+                }
+            } finally {
+                gradeLock.readLock().unlock();
             }
+            return orphaned;
+        } finally {
+            GET_ORPHANED_GRADE_STUDENTS_TIMER.recordSince(start);
         }
-        return orphaned;
     }
     
     public List<String> getOrphanedAttendanceStudents() {
-        List<String> orphaned = new ArrayList<>();
-        for (Attendance attendance : attendanceRecords) {
-            if (!students.containsKey(attendance.getStudentId()) && !orphaned.contains(attendance.getStudentId())) {
-                orphaned.add(attendance.getStudentId());
+        long start = System.nanoTime();
+        try {
+            List<String> orphaned = new ArrayList<>();
+            attendanceLock.readLock().lock();
+            try {
+                for (String studentId : attendanceByStudent.keySet()) {
+                    if (!students.containsKey(studentId)) {
+                        orphaned.add(studentId);
+                    }
+                }
+            } finally {
+                attendanceLock.readLock().unlock();
             }
+            return orphaned;
+        } finally {
+            GET_ORPHANED_ATTENDANCE_STUDENTS_TIMER.recordSince(start);
         }
-        return orphaned;
     }
 }
\ No newline at end of file
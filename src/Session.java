@@ -0,0 +1,34 @@
+// One logged-in user. The role's permission mask is looked up once at login, so
+// checking a permission is a single bit test. Sessions are created and expired by LoginSystem.
+public class Session {
+    private final String token;
+    private final User user;
+    private final long permissions;
+    private final long createdAt;
+    private volatile long lastAccess;
+
+    Session(String token, User user, long permissions) {
+        this.token = token;
+        this.user = user;
+        this.permissions = permissions;
+        this.createdAt = System.currentTimeMillis();
+        this.lastAccess = createdAt;
+    }
+
+    public String getToken() { return token; }
+    public User getUser() { return user; }
+    public long getCreatedAt() { return createdAt; }
+    public long getLastAccess() { return lastAccess; }
+
+    public boolean hasPermission(Permission permission) {
+        return (permissions & permission.bit()) != 0;
+    }
+
+    void touch(long now) {
+        lastAccess = now;
+    }
+
+    boolean isIdle(long now, long timeoutMillis) {
+        return now - lastAccess > timeoutMillis;
+    }
+}
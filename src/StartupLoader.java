@@ -0,0 +1,95 @@
+import javax.swing.*;
+
+// Loads saved data on a background thread while the login dialog is showing.
+// Users are loaded first and announced with the "usersLoaded" property, so logging
+// in only waits for them; the rest of the school data follows. The result is
+// false when there was no saved data to load.
+public class StartupLoader extends SwingWorker<Boolean, Void> {
+    private final SchoolManagementSystem school;
+    private final LoginSystem loginSystem;
+    private volatile boolean usersLoaded;
+    private volatile String status = "Loading users...";
+    private boolean emptyStartClaimed; // event thread only
+
+    public StartupLoader(SchoolManagementSystem school, LoginSystem loginSystem) {
+        this.school = school;
+        this.loginSystem = loginSystem;
+    }
+
+    @Override
+    protected Boolean doInBackground() {
+        boolean found = DataPersistence.loadUserData(loginSystem);
+        usersLoaded = true;
+        firePropertyChange("usersLoaded", false, true);
+        if (!found) {
+            setProgress(100);
+            return false;
+        }
+
+        setStatus("Loading school data...");
+        setProgress(20);
+        boolean loaded = DataPersistence.loadSchoolData(school, loginSystem);
+        setStatus("Ready");
+        setProgress(100);
+        return loaded;
+    }
+
+    public boolean isUsersLoaded() {
+        return usersLoaded;
+    }
+
+    // The load result, showing a modal progress dialog over owner while loading finishes
+    public boolean awaitLoaded(JFrame owner) {
+        if (!isDone()) {
+            JDialog dialog = new JDialog(owner, "Loading", true);
+            JPanel panel = new JPanel();
+            panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+            panel.add(createProgressBar());
+            dialog.add(panel);
+            dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+            dialog.pack();
+            dialog.setLocationRelativeTo(owner);
+
+            // Property changes arrive on the event thread, after isDone() turns true
+            addPropertyChangeListener(e -> {
+                if (isDone()) dialog.dispose();
+            });
+            if (!isDone()) dialog.setVisible(true);
+        }
+
+        try {
+            return get();
+        } catch (Exception e) {
+            System.err.println("Error loading data: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // True for the first caller only. After a logout the GUI is rebuilt with this
+    // finished loader, and must not treat the missing saved data as a new empty start
+    // (and generate sample data) again.
+    public boolean claimEmptyStart() {
+        if (emptyStartClaimed) return false;
+        emptyStartClaimed = true;
+        return true;
+    }
+
+    // A progress bar that follows this load
+    public JProgressBar createProgressBar() {
+        JProgressBar bar = new JProgressBar(0, 100);
+        bar.setStringPainted(true);
+        bar.setValue(getProgress());
+        bar.setString(status);
+        addPropertyChangeListener(e -> {
+            bar.setValue(getProgress());
+            bar.setString(status);
+        });
+        return bar;
+    }
+
+    private void setStatus(String status) {
+        String old = this.status;
+        this.status = status;
+        firePropertyChange("status", old, status);
+    }
+}
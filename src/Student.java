@@ -14,8 +14,8 @@ public class Student {
     private String address;
     private LocalDate enrollmentDate;
     private String status; // Active, Inactive, Graduated
-    private double feesPaid;
-    private double feesTotal;
+    private volatile double feesPaid;
+    private volatile double feesTotal;
     
     public Student(String studentId, String firstName, String lastName, LocalDate dateOfBirth,
                   String gender, String grade, String parentName, String parentPhone, 
@@ -64,7 +64,7 @@ public class Student {
     public void setStatus(String status) { this.status = status; }
     public void setFeesTotal(double feesTotal) { this.feesTotal = feesTotal; }
     
-    public void addFeePayment(double amount) {
+    public synchronized void addFeePayment(double amount) {
         this.feesPaid += amount;
     }
     
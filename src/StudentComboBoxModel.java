@@ -0,0 +1,150 @@
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.plaf.basic.ComboPopup;
+import java.awt.Component;
+
+// One combo box's view of the shared StudentListModel: the same students, with its
+// own selection. The selection is the Student itself, so callers read the ID
+// directly. Like DefaultComboBoxModel, the first student is selected when nothing is.
+public class StudentComboBoxModel extends AbstractListModel<Student>
+        implements ComboBoxModel<Student>, ListDataListener {
+    private final StudentListModel students;
+    private Student selected;
+
+    public StudentComboBoxModel(StudentListModel students) {
+        this.students = students;
+        students.addListDataListener(this);
+        selectFirstIfNone();
+    }
+
+    // A student picker over the shared list. The prototype value keeps the combo box
+    // and its popup from measuring every student to size themselves, and typing
+    // jumps to the first student whose name or ID starts with the typed text.
+    public static JComboBox<Student> createComboBox(StudentListModel students) {
+        JComboBox<Student> combo = new JComboBox<>(new StudentComboBoxModel(students));
+        Student prototype = new Student("STU00000", "Prototype", "Student Name",
+                null, "", "", "", "", "", "");
+        combo.setRenderer(new StudentRenderer());
+        combo.setPrototypeDisplayValue(prototype);
+        Object popup = combo.getAccessibleContext().getAccessibleChild(0);
+        if (popup instanceof ComboPopup) {
+            ((ComboPopup) popup).getList().setPrototypeCellValue(prototype);
+        }
+        combo.setKeySelectionManager(new TypeAhead());
+        return combo;
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return selected;
+    }
+
+    @Override
+    public void setSelectedItem(Object item) {
+        if (item == selected) return;
+        if (item != null && !(item instanceof Student)) return;
+        selected = (Student) item;
+        fireContentsChanged(this, -1, -1);
+    }
+
+    @Override
+    public int getSize() {
+        return students.getSize();
+    }
+
+    @Override
+    public Student getElementAt(int index) {
+        return students.getElementAt(index);
+    }
+
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+        fireIntervalAdded(this, e.getIndex0(), e.getIndex1());
+        selectFirstIfNone();
+    }
+
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+        fireIntervalRemoved(this, e.getIndex0(), e.getIndex1());
+        reselect();
+    }
+
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+        fireContentsChanged(this, e.getIndex0(), e.getIndex1());
+        reselect();
+    }
+
+    // The selected student may have been replaced by an edited copy, or removed
+    private void reselect() {
+        if (selected != null) {
+            Student current = students.get(selected.getStudentId());
+            if (current != selected) {
+                selected = current;
+                fireContentsChanged(this, -1, -1);
+            }
+        }
+        selectFirstIfNone();
+    }
+
+    private void selectFirstIfNone() {
+        if (selected == null && students.getSize() > 0) {
+            setSelectedItem(students.getElementAt(0));
+        }
+    }
+
+    private static class StudentRenderer extends DefaultListCellRenderer {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            if (value instanceof Student) {
+                Student student = (Student) value;
+                value = student.getStudentId() + " - " + student.getFullName();
+            }
+            return super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+        }
+    }
+
+    // Keys typed within a second of each other build up one prefix
+    private static class TypeAhead implements JComboBox.KeySelectionManager {
+        private static final long RESET_MILLIS = 1000;
+        private String prefix = "";
+        private long lastKeyTime;
+
+        @Override
+        public int selectionForKey(char key, ComboBoxModel<?> model) {
+            long now = System.currentTimeMillis();
+            prefix = now - lastKeyTime > RESET_MILLIS ? String.valueOf(key) : prefix + key;
+            lastKeyTime = now;
+
+            int size = model.getSize();
+            int start = 0;
+            if (prefix.length() == 1) {
+                // Repeating one key steps through the students starting with it
+                Object selected = model.getSelectedItem();
+                for (int i = 0; i < size && selected != null; i++) {
+                    if (model.getElementAt(i) == selected) {
+                        start = i + 1;
+                        break;
+                    }
+                }
+            }
+            for (int n = 0; n < size; n++) {
+                int i = (start + n) % size;
+                Object item = model.getElementAt(i);
+                if (item instanceof Student && matches((Student) item)) return i;
+            }
+            return -1;
+        }
+
+        private boolean matches(Student student) {
+            return startsWith(student.getFirstName()) || startsWith(student.getLastName())
+                    || startsWith(student.getFullName()) || startsWith(student.getStudentId());
+        }
+
+        private boolean startsWith(String text) {
+            return text != null && text.regionMatches(true, 0, prefix, 0, prefix.length());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Per-student GPA aggregates: overall, per subject and per (academic year, semester)
+public class StudentGpa {
+    private final GpaAggregate overall = new GpaAggregate();
+    private final Map<String, GpaAggregate> bySubject = new HashMap<>();
+    private final Map<String, Map<String, GpaAggregate>> byYearAndSemester = new HashMap<>();
+    
+    public void add(Grade grade, double percentage) {
+        overall.add(percentage);
+        bySubject.computeIfAbsent(grade.getSubject(), s -> new GpaAggregate()).add(percentage);
+        byYearAndSemester.computeIfAbsent(grade.getAcademicYear(), y -> new HashMap<>())
+                         .computeIfAbsent(grade.getSemester(), s -> new GpaAggregate()).add(percentage);
+    }
+    
+    public void remove(Grade grade, double percentage) {
+        overall.remove(percentage);
+        
+        GpaAggregate subject = bySubject.get(grade.getSubject());
+        if (subject != null) {
+            subject.remove(percentage);
+            if (subject.getCount() == 0) bySubject.remove(grade.getSubject());
+        }
+        
+        Map<String, GpaAggregate> semesters = byYearAndSemester.get(grade.getAcademicYear());
+        if (semesters != null) {
+            GpaAggregate term = semesters.get(grade.getSemester());
+            if (term != null) {
+                term.remove(percentage);
+                if (term.getCount() == 0) semesters.remove(grade.getSemester());
+            }
+            if (semesters.isEmpty()) byYearAndSemester.remove(grade.getAcademicYear());
+        }
+    }
+    
+    public int getGradeCount() {
+        return overall.getCount();
+    }
+    
+    public double getOverallGPA() {
+        return overall.getAverage();
+    }
+    
+    public double getSubjectGPA(String subject) {
+        GpaAggregate aggregate = bySubject.get(subject);
+        return aggregate != null ? aggregate.getAverage() : 0.0;
+    }
+    
+    public double getTermGPA(String semester, String academicYear) {
+        Map<String, GpaAggregate> semesters = byYearAndSemester.get(academicYear);
+        if (semesters == null) return 0.0;
+        GpaAggregate aggregate = semesters.get(semester);
+        return aggregate != null ? aggregate.getAverage() : 0.0;
+    }
+}
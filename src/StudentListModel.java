@@ -0,0 +1,84 @@
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The students shown by the student pickers, kept in one list for the whole window.
+// Each combo box views it through its own StudentComboBoxModel, so a change to one
+// student is a single list event instead of every combo box being refilled.
+public class StudentListModel extends AbstractListModel<Student> {
+    private List<Student> students = new ArrayList<>();
+    private final Map<String, Student> byId = new HashMap<>();
+    private Map<String, Integer> indexById; // built on first use
+
+    // The model keeps the list; callers pass a copy they no longer change
+    public void setStudents(List<Student> students) {
+        this.students = students;
+        byId.clear();
+        for (Student student : students) {
+            byId.put(student.getStudentId(), student);
+        }
+        indexById = null;
+        fireContentsChanged(this, 0, Math.max(0, students.size() - 1));
+    }
+
+    // Appends the student, or replaces the one with the same ID
+    public void add(Student student) {
+        if (byId.containsKey(student.getStudentId())) {
+            update(student);
+            return;
+        }
+        students.add(student);
+        byId.put(student.getStudentId(), student);
+        if (indexById != null) indexById.put(student.getStudentId(), students.size() - 1);
+        fireIntervalAdded(this, students.size() - 1, students.size() - 1);
+    }
+
+    public void update(Student student) {
+        int index = indexOf(student.getStudentId());
+        if (index < 0) return;
+        students.set(index, student);
+        byId.put(student.getStudentId(), student);
+        fireContentsChanged(this, index, index);
+    }
+
+    // Keeps the order the pickers show; later students move up and their index
+    // entries are shifted with them
+    public void remove(Student student) {
+        int index = indexOf(student.getStudentId());
+        if (index < 0) return;
+        students.remove(index);
+        byId.remove(student.getStudentId());
+        indexById.remove(student.getStudentId());
+        for (int later = index; later < students.size(); later++) {
+            indexById.put(students.get(later).getStudentId(), later);
+        }
+        fireIntervalRemoved(this, index, index);
+    }
+
+    public Student get(String studentId) {
+        return byId.get(studentId);
+    }
+
+    private int indexOf(String studentId) {
+        if (!byId.containsKey(studentId)) return -1;
+        if (indexById == null) {
+            indexById = new HashMap<>();
+            for (int i = 0; i < students.size(); i++) {
+                indexById.put(students.get(i).getStudentId(), i);
+            }
+        }
+        return indexById.get(studentId);
+    }
+
+    @Override
+    public int getSize() {
+        return students.size();
+    }
+
+    @Override
+    public Student getElementAt(int index) {
+        return students.get(index);
+    }
+}
@@ -1,4 +1,5 @@
 import javax.swing.*;
+import javax.swing.border.Border;
 import java.awt.*;
 
 public class ThemeManager {
@@ -20,73 +21,85 @@ public class ThemeManager {
     public static final Color LIGHT_BUTTON = new Color(230, 230, 230);
     public static final Color LIGHT_SELECTED = new Color(184, 207, 229);
     
+    // Shared so that re-theming a button never replaces its border with an equal one,
+    // which would make Swing lay the button out again
+    private static final Border DARK_BUTTON_BORDER = BorderFactory.createLineBorder(DARK_BORDER);
+    private static final Border LIGHT_BUTTON_BORDER = BorderFactory.createLineBorder(LIGHT_BORDER);
+    
+    // Colors of the current theme, switched together by setDarkMode
+    private static Color background = LIGHT_BG;
+    private static Color panelBackground = LIGHT_PANEL;
+    private static Color text = LIGHT_TEXT;
+    private static Color border = LIGHT_BORDER;
+    private static Color buttonBackground = LIGHT_BUTTON;
+    private static Color selection = LIGHT_SELECTED;
+    private static Border buttonBorder = LIGHT_BUTTON_BORDER;
+    
     public static void setDarkMode(boolean darkMode) {
         isDarkMode = darkMode;
+        background = darkMode ? DARK_BG : LIGHT_BG;
+        panelBackground = darkMode ? DARK_PANEL : LIGHT_PANEL;
+        text = darkMode ? DARK_TEXT : LIGHT_TEXT;
+        border = darkMode ? DARK_BORDER : LIGHT_BORDER;
+        buttonBackground = darkMode ? DARK_BUTTON : LIGHT_BUTTON;
+        selection = darkMode ? DARK_SELECTED : LIGHT_SELECTED;
+        buttonBorder = darkMode ? DARK_BUTTON_BORDER : LIGHT_BUTTON_BORDER;
     }
     
     public static boolean isDarkMode() {
         return isDarkMode;
     }
     
+    // Colors the component and everything inside it. Call when the theme changes or when
+    // new components are added, not after data changes: tables and lists repaint their
+    // rows with the colors they already have. Setting a color or border a component
+    // already has is free, so re-applying the same theme only costs the walk.
     public static void applyTheme(Component component) {
         if (component instanceof JFrame) {
             JFrame frame = (JFrame) component;
-            frame.getContentPane().setBackground(isDarkMode ? DARK_BG : LIGHT_BG);
+            frame.getContentPane().setBackground(background);
         }
         
         if (component instanceof JPanel) {
-            JPanel panel = (JPanel) component;
-            panel.setBackground(isDarkMode ? DARK_PANEL : LIGHT_PANEL);
-            panel.setForeground(isDarkMode ? DARK_TEXT : LIGHT_TEXT);
-        }
-        
-        if (component instanceof JLabel) {
-            JLabel label = (JLabel) component;
-            label.setForeground(isDarkMode ? DARK_TEXT : LIGHT_TEXT);
-        }
-        
-        if (component instanceof JButton) {
+            component.setBackground(panelBackground);
+            component.setForeground(text);
+        } else if (component instanceof JLabel) {
+            component.setForeground(text);
+        } else if (component instanceof JButton) {
             JButton button = (JButton) component;
-            button.setBackground(isDarkMode ? DARK_BUTTON : LIGHT_BUTTON);
-            button.setForeground(isDarkMode ? DARK_TEXT : LIGHT_TEXT);
-            button.setBorder(BorderFactory.createLineBorder(isDarkMode ? DARK_BORDER : LIGHT_BORDER));
-        }
-        
-        if (component instanceof JTextField) {
+            button.setBackground(buttonBackground);
+            button.setForeground(text);
+            if (button.getBorder() != buttonBorder) button.setBorder(buttonBorder);
+        } else if (component instanceof JTextField) {
             JTextField field = (JTextField) component;
-            field.setBackground(isDarkMode ? DARK_BG : LIGHT_BG);
-            field.setForeground(isDarkMode ? DARK_TEXT : LIGHT_TEXT);
-            field.setCaretColor(isDarkMode ? DARK_TEXT : LIGHT_TEXT);
-        }
-        
-        if (component instanceof JTable) {
+            field.setBackground(background);
+            field.setForeground(text);
+            field.setCaretColor(text);
+        } else if (component instanceof JTable) {
             JTable table = (JTable) component;
-            table.setBackground(isDarkMode ? DARK_BG : LIGHT_BG);
-            table.setForeground(isDarkMode ? DARK_TEXT : LIGHT_TEXT);
-            table.setSelectionBackground(isDarkMode ? DARK_SELECTED : LIGHT_SELECTED);
-            table.setGridColor(isDarkMode ? DARK_BORDER : LIGHT_BORDER);
-            table.getTableHeader().setBackground(isDarkMode ? DARK_PANEL : LIGHT_PANEL);
-            table.getTableHeader().setForeground(isDarkMode ? DARK_TEXT : LIGHT_TEXT);
-        }
-        
-        if (component instanceof JComboBox) {
-            JComboBox<?> combo = (JComboBox<?>) component;
-            combo.setBackground(isDarkMode ? DARK_BUTTON : LIGHT_BUTTON);
-            combo.setForeground(isDarkMode ? DARK_TEXT : LIGHT_TEXT);
-        }
-        
-        if (component instanceof JScrollPane) {
+            table.setBackground(background);
+            table.setForeground(text);
+            table.setSelectionBackground(selection);
+            table.setGridColor(border);
+            if (table.getTableHeader() != null) {
+                table.getTableHeader().setBackground(panelBackground);
+                table.getTableHeader().setForeground(text);
+            }
+        } else if (component instanceof JComboBox) {
+            component.setBackground(buttonBackground);
+            component.setForeground(text);
+        } else if (component instanceof JScrollPane) {
             JScrollPane scroll = (JScrollPane) component;
-            scroll.getViewport().setBackground(isDarkMode ? DARK_BG : LIGHT_BG);
-            scroll.setBackground(isDarkMode ? DARK_BG : LIGHT_BG);
+            scroll.getViewport().setBackground(background);
+            scroll.setBackground(background);
         }
         
         // Apply to all child components
         if (component instanceof Container) {
             Container container = (Container) component;
-            for (Component child : container.getComponents()) {
-                applyTheme(child);
+            for (int i = 0; i < container.getComponentCount(); i++) {
+                applyTheme(container.getComponent(i));
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Substring index over a few text fields per record, keyed by record ID.
+//
+// Each record is stored as the lowercase text of its fields, separated by a
+// character that never appears in a query, and every three-character sequence
+// (trigram) of that text has a posting list of the records containing it. A query
+// intersects the posting lists of its trigrams, smallest first, and then confirms
+// each candidate with contains(). Queries shorter than three characters scan the
+// stored text, which needs no per-record allocation.
+//
+// Records get increasing document numbers, so posting lists stay sorted by just
+// appending. Updating a record gives it a new number; old numbers are left as
+// tombstones and cleared out by a rebuild once they outnumber the live records.
+// Thread-safe.
+public class TrigramIndex {
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docById = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private String[] ids = new String[16];   // by document number; null once replaced
+    private String[] texts = new String[16];
+    private int docCount;
+    private int liveCount;
+
+    // Add or replace the indexed fields of a record
+    public void put(String id, String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            if (text.length() > 0) text.append(FIELD_SEPARATOR);
+            if (field != null) text.append(field.toLowerCase());
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer old = docById.get(id);
+            if (old != null && text.toString().equals(texts[old])) return;
+            removeDoc(id);
+            addDoc(id, text.toString());
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // IDs of the records with a field containing query (case-insensitive), oldest first
+    public List<String> search(String query) {
+        String needle = query.toLowerCase();
+        List<String> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (needle.length() < 3) {
+                for (int doc = 0; doc < docCount; doc++) {
+                    if (ids[doc] != null && texts[doc].contains(needle)) result.add(ids[doc]);
+                }
+                return result;
+            }
+
+            // Posting lists of the query's distinct trigrams; any missing trigram means no match
+            Map<Long, Postings> lists = new HashMap<>();
+            for (int i = 0; i + 3 <= needle.length(); i++) {
+                long trigram = trigram(needle, i);
+                if (lists.containsKey(trigram)) continue;
+                Postings list = postings.get(trigram);
+                if (list == null) return result;
+                lists.put(trigram, list);
+            }
+            List<Postings> ordered = new ArrayList<>(lists.values());
+            ordered.sort(Comparator.comparingInt(list -> list.size));
+
+            int[] candidates = Arrays.copyOf(ordered.get(0).docs, ordered.get(0).size);
+            int candidateCount = candidates.length;
+            for (int i = 1; i < ordered.size() && candidateCount > 0; i++) {
+                candidateCount = intersect(candidates, candidateCount, ordered.get(i));
+            }
+
+            for (int i = 0; i < candidateCount; i++) {
+                int doc = candidates[i];
+                if (ids[doc] != null && texts[doc].contains(needle)) result.add(ids[doc]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keeps the entries of candidates[0..count) that are also in list; both are sorted
+    private static int intersect(int[] candidates, int count, Postings list) {
+        int kept = 0;
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int doc = candidates[i];
+            position = list.seek(doc, position);
+            if (position == list.size) break;
+            if (list.docs[position] == doc) candidates[kept++] = doc;
+        }
+        return kept;
+    }
+
+    private void addDoc(String id, String text) {
+        if (docCount == ids.length) {
+            ids = Arrays.copyOf(ids, docCount * 2);
+            texts = Arrays.copyOf(texts, docCount * 2);
+        }
+        int doc = docCount++;
+        ids[doc] = id;
+        texts[doc] = text;
+        docById.put(id, doc);
+        liveCount++;
+
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            Postings list = postings.computeIfAbsent(trigram(text, i), key -> new Postings());
+            list.addIfLast(doc);
+        }
+    }
+
+    private void removeDoc(String id) {
+        Integer doc = docById.remove(id);
+        if (doc != null) {
+            ids[doc] = null;
+            texts[doc] = null;
+            liveCount--;
+        }
+    }
+
+    private void compactIfSparse() {
+        int dead = docCount - liveCount;
+        if (dead < 1024 || dead < liveCount) return;
+
+        String[] oldIds = ids;
+        String[] oldTexts = texts;
+        int oldCount = docCount;
+        docById.clear();
+        postings.clear();
+        ids = new String[Math.max(16, liveCount * 2)];
+        texts = new String[ids.length];
+        docCount = 0;
+        liveCount = 0;
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldIds[doc] != null) addDoc(oldIds[doc], oldTexts[doc]);
+        }
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    // Sorted document numbers containing one trigram
+    private static class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        // A trigram can occur several times in one record; it is listed once
+        void addIfLast(int doc) {
+            if (size > 0 && docs[size - 1] == doc) return;
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+
+        // First position at or after from whose document is >= doc (galloping search)
+        int seek(int doc, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && docs[high] < doc) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (docs[middle] < doc) low = middle + 1;
+                else high = middle;
+            }
+            return low;
+        }
+    }
+}
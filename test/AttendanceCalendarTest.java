@@ -0,0 +1,47 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class AttendanceCalendarTest {
+    @Test
+    void percentageMatchesCountingEveryRecord() {
+        SplittableRandom random = new SplittableRandom(3);
+        String[] statuses = {"Present", "Absent", "Late", "Excused"};
+        AttendanceCalendar calendar = new AttendanceCalendar();
+        List<Attendance> records = new ArrayList<>();
+        LocalDate first = LocalDate.of(2023, 1, 1);
+        for (int day = 0; day < 900; day++) {
+            if (random.nextInt(3) == 0) continue;
+            Attendance record = new Attendance("ATT" + day, "STU1", first.plusDays(day),
+                                               statuses[random.nextInt(statuses.length)], "");
+            calendar.record(record.getDate(), record.getStatus());
+            records.add(record);
+        }
+        // Some statuses change after the sums were built
+        calendar.percentage(first, first.plusDays(900));
+        for (int i = 0; i < 50; i++) {
+            Attendance record = records.get(random.nextInt(records.size()));
+            String oldStatus = record.getStatus();
+            record.setStatus(statuses[random.nextInt(statuses.length)]);
+            calendar.statusChanged(record.getDate(), oldStatus, record.getStatus());
+        }
+
+        for (int i = 0; i < 500; i++) {
+            LocalDate start = first.plusDays(random.nextInt(-10, 910));
+            LocalDate end = start.plusDays(random.nextInt(0, 400));
+            int total = 0;
+            int attended = 0;
+            for (Attendance record : records) {
+                if (record.getDate().isBefore(start) || record.getDate().isAfter(end)) continue;
+                total++;
+                if (AttendanceCalendar.isAttended(record.getStatus())) attended++;
+            }
+            double expected = total > 0 ? (double) attended / total * 100 : 0.0;
+            assertEquals(expected, calendar.percentage(start, end), 1e-9, start + ".." + end);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinarySnapshotTest {
+    @TempDir
+    File dir;
+
+    @Test
+    void stringsOfAnyLengthRoundTrip() throws Exception {
+        String longText = "é中|x\n".repeat(20_000); // well over writeUTF's 64 KB
+        List<Attendance> records = new ArrayList<>();
+        records.add(new Attendance("ATT1", "STU1", LocalDate.of(2024, 1, 8), "Present", ""));
+        records.add(new Attendance("ATT2", "STU2", LocalDate.of(2024, 1, 8), "Absent", longText));
+        records.add(new Attendance("ATT3", "STU1", LocalDate.of(2024, 1, 9), "Present", "Sick"));
+        File file = new File(dir, BinarySnapshot.ATTENDANCE_FILE);
+        BinarySnapshot.saveAttendance(records, file);
+
+        List<Attendance> loaded = BinarySnapshot.loadAttendance(file);
+        assertEquals(3, loaded.size());
+        assertEquals("", loaded.get(0).getRemarks());
+        assertEquals(longText, loaded.get(1).getRemarks());
+        assertEquals("Sick", loaded.get(2).getRemarks());
+        assertEquals("STU1", loaded.get(2).getStudentId());
+        assertEquals(LocalDate.of(2024, 1, 9), loaded.get(2).getDate());
+        assertFalse(new File(dir, BinarySnapshot.ATTENDANCE_FILE + ".tmp").exists());
+    }
+
+    @Test
+    void loadSchoolBulkAddsEverySet() throws Exception {
+        SchoolManagementSystem school = new SchoolManagementSystem();
+        new SampleDataGenerator().students(40).teachers(4).years(1).schoolDaysPerYear(10)
+                .userAccounts(false).seed(7).populate(school, new LoginSystem());
+        BinarySnapshot.saveStudents(school.getAllStudents(), new File(dir, BinarySnapshot.STUDENTS_FILE));
+        BinarySnapshot.saveTeachers(school.getAllTeachers(), new File(dir, BinarySnapshot.TEACHERS_FILE));
+        BinarySnapshot.saveGrades(school.getAllGrades(), new File(dir, BinarySnapshot.GRADES_FILE));
+        BinarySnapshot.saveAttendance(school.getAllAttendance(), new File(dir, BinarySnapshot.ATTENDANCE_FILE));
+
+        SchoolManagementSystem loaded = new SchoolManagementSystem();
+        BinarySnapshot.loadSchool(loaded, dir.getPath());
+        assertEquals(school.getStudentCount(), loaded.getStudentCount());
+        assertEquals(school.getTeacherCount(), loaded.getTeacherCount());
+        assertEquals(school.getGradeCount(), loaded.getGradeCount());
+        assertEquals(school.getAttendanceCount(), loaded.getAttendanceCount());
+        for (Student student : school.getAllStudents()) {
+            String id = student.getStudentId();
+            assertEquals(school.calculateOverallGPA(id), loaded.calculateOverallGPA(id), 1e-9);
+            assertEquals(school.calculateAttendancePercentage(id, LocalDate.MIN, LocalDate.MAX),
+                         loaded.calculateAttendancePercentage(id, LocalDate.MIN, LocalDate.MAX), 1e-9);
+        }
+        // New records get IDs past the loaded ones
+        String studentId = loaded.addStudent("Ann", "Lee", LocalDate.of(2010, 1, 1), "Female", "5", "", "", "", "");
+        assertNull(school.getStudent(studentId));
+    }
+}
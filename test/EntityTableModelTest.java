@@ -0,0 +1,41 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EntityTableModelTest {
+    @Test
+    void removeKeepsRowOrderAndTheKeyIndex() {
+        EntityTableModel<String> model = new EntityTableModel<String>()
+                .addColumn("Value", value -> value)
+                .withKey(value -> value);
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) rows.add("r" + i);
+        model.setRows(rows);
+
+        List<String> expected = new ArrayList<>(List.of("r0", "r1", "r2", "r3", "r4", "r5", "r6", "r7", "r8", "r9"));
+        for (String removed : new String[] {"r2", "r9", "r0", "r5", "missing"}) {
+            model.removeRow(removed);
+            expected.remove(removed);
+        }
+        model.updateRow("r8"); // found through the index after rows shifted
+        model.addRow("r3");    // already shown: replaced, not duplicated
+        assertEquals(expected, shown(model));
+
+        model.removeRow("r4");
+        model.addRow("r10");
+        expected.remove("r4");
+        expected.add("r10");
+        assertEquals(expected, shown(model));
+
+        for (String value : expected) model.removeRow(value);
+        assertEquals(0, model.getRowCount());
+    }
+
+    private static List<String> shown(EntityTableModel<String> model) {
+        List<String> shown = new ArrayList<>();
+        for (int row = 0; row < model.getRowCount(); row++) shown.add(model.getRow(row));
+        return shown;
+    }
+}
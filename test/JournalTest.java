@@ -0,0 +1,160 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Free text is written into pipe-delimited journal and text-file records, so it must
+// round-trip unchanged and never be read back as extra fields or extra records.
+// A change the journal could not record must fail rather than look durable.
+class JournalTest {
+    private static final String[] HOSTILE = {
+        "a|b",
+        "line one\nline two",
+        "STUDENT_REMOVED|STU1000",
+        "ends with backslash\\",
+        "\\|\\n literal escapes",
+        "\r\n|\n|",
+        "",
+        "|",
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void hostileStringsSurviveJournalReplay() throws Exception {
+        String file = dir.resolve("journal.log").toString();
+        Journal journal = new Journal(file);
+        for (int i = 0; i < HOSTILE.length; i++) {
+            String text = HOSTILE[i];
+            journal.logStudent(student("STU" + (1000 + i), text));
+            journal.logTeacher(new Teacher("TEA" + (100 + i), text, text, text, text, text, text, 1000, text));
+            journal.logGrade(new Grade("GRD" + i, "STU" + (1000 + i), text, text, 80, 100, text, text));
+            journal.logAttendance(new Attendance("ATT" + i, "STU" + (1000 + i), LocalDate.of(2024, 1, 8), "Present", text));
+            journal.logUser(new User("USR" + (2000 + i), "user" + i, text, "Student", text, text, "STU" + (1000 + i)));
+        }
+        // A removal whose ID is hostile must remove only that ID
+        journal.logStudentRemoved("STU1002\nSTUDENT_REMOVED|STU1000");
+        journal.close();
+
+        SchoolManagementSystem school = new SchoolManagementSystem();
+        LoginSystem login = new LoginSystem();
+        int applied = Journal.replay(file, school, login);
+
+        assertEquals(HOSTILE.length * 5 + 1, applied);
+        assertEquals(HOSTILE.length, school.getStudentCount());
+        for (int i = 0; i < HOSTILE.length; i++) {
+            String text = HOSTILE[i];
+            String studentId = "STU" + (1000 + i);
+
+            Student student = school.getStudent(studentId);
+            assertNotNull(student, studentId);
+            assertEquals(text, student.getFirstName());
+            assertEquals(text, student.getAddress());
+            assertEquals(text, student.getParentEmail());
+
+            Teacher teacher = school.getTeacher("TEA" + (100 + i));
+            assertEquals(text, teacher.getQualification());
+            assertEquals(text, teacher.getAddress());
+
+            Grade grade = school.findGrade(studentId, "GRD" + i);
+            assertEquals(text, grade.getSubject());
+            assertEquals(text, grade.getAcademicYear());
+            assertEquals(80, grade.getMarks());
+
+            Attendance attendance = school.findAttendance(LocalDate.of(2024, 1, 8), "ATT" + i);
+            assertEquals(text, attendance.getRemarks());
+
+            User user = login.getUser("user" + i);
+            assertEquals(text, user.getPassword());
+            assertEquals(text, user.getFullName());
+            assertEquals(studentId, user.getAssociatedId());
+        }
+    }
+
+    @Test
+    void replayedRemovalDropsRecordsOfAStudentTheSnapshotNoLongerHas() throws Exception {
+        // The snapshot was taken after STU1000 was removed; the journal still holds
+        // the student's records and the removal that followed them
+        String file = dir.resolve("journal.log").toString();
+        Journal journal = new Journal(file);
+        journal.logGrade(new Grade("GRD1", "STU1000", "Math", "Final", 80, 100, "Fall", "2024"));
+        journal.logAttendance(new Attendance("ATT1", "STU1000", LocalDate.of(2024, 1, 8), "Present", ""));
+        journal.logStudentRemoved("STU1000");
+        journal.close();
+
+        SchoolManagementSystem school = new SchoolManagementSystem();
+        assertEquals(3, Journal.replay(file, school, new LoginSystem()));
+        assertEquals(0, school.getGradeCount());
+        assertEquals(0, school.getAttendanceCount());
+        assertTrue(school.getOrphanedGradeStudents().isEmpty());
+        assertTrue(school.getOrphanedAttendanceStudents().isEmpty());
+    }
+
+    @Test
+    void appendAfterCloseThrows() throws Exception {
+        Journal journal = new Journal(dir.resolve("journal.log").toString());
+        journal.logStudentRemoved("STU1000");
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.logStudentRemoved("STU1001"));
+        assertFalse(journal.isFailed());
+    }
+
+    @Test
+    void closingDetachesTheJournal() throws Exception {
+        String previous = System.getProperty("school.dataDir");
+        System.setProperty("school.dataDir", dir.toString());
+        try {
+            SchoolManagementSystem school = new SchoolManagementSystem();
+            LoginSystem login = new LoginSystem();
+            DataPersistence.openJournal(school, login);
+            school.addStudent("Ann", "Lee", LocalDate.of(2010, 1, 1), "Female", "5",
+                              "Bo Lee", "555-0100", "bo@example.com", "1 Main St");
+            DataPersistence.closeJournal();
+            // Not journaled any more, and no longer refused by the closed journal
+            school.addStudent("Cy", "Park", LocalDate.of(2010, 1, 1), "Male", "5",
+                              "Di Park", "555-0101", "di@example.com", "2 Main St");
+
+            SchoolManagementSystem replayed = new SchoolManagementSystem();
+            assertEquals(1, Journal.replay(dir.resolve("journal.log").toString(), replayed, new LoginSystem()));
+            assertEquals("Ann", replayed.getAllStudents().get(0).getFirstName());
+        } finally {
+            DataPersistence.closeJournal();
+            if (previous == null) System.clearProperty("school.dataDir");
+            else System.setProperty("school.dataDir", previous);
+        }
+    }
+
+    @Test
+    void textRecordsRoundTrip() {
+        for (String text : HOSTILE) {
+            String line = DataPersistence.formatAttendance(
+                    new Attendance("ATT1", "STU1", LocalDate.of(2024, 1, 8), "Absent", text));
+            assertFalse(line.contains("\n") || line.contains("\r"), line);
+
+            Attendance attendance = DataPersistence.parseAttendance(DataPersistence.splitFields(line));
+            assertEquals("STU1", attendance.getStudentId());
+            assertEquals("Absent", attendance.getStatus());
+            assertEquals(text, attendance.getRemarks());
+
+            Student student = DataPersistence.parseStudent(
+                    DataPersistence.splitFields(DataPersistence.formatStudent(student("STU1", text))));
+            assertEquals(text, student.getLastName());
+            assertEquals("Active", student.getStatus());
+        }
+    }
+
+    @Test
+    void unescapedFilesStillLoad() {
+        String[] parts = DataPersistence.splitFields("ATT1|STU1|2024-01-08|Late|C:\\temp");
+        assertEquals(5, parts.length);
+        assertEquals("C:\\temp", parts[4]);
+    }
+
+    private static Student student(String id, String text) {
+        return new Student(id, text, text, LocalDate.of(2010, 5, 1), "Female", "5",
+                           text, text, text, text);
+    }
+}
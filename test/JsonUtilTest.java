@@ -0,0 +1,23 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class JsonUtilTest {
+    @Test
+    void readsNumbersAsText() {
+        Map<String, String> object = JsonUtil.parseObject("{\"a\": 1, \"b\": -2.5e3, \"c\": 0.25, \"d\": null, \"e\": true}");
+        assertEquals("1", object.get("a"));
+        assertEquals("-2.5e3", object.get("b"));
+        assertEquals("0.25", object.get("c"));
+        assertNull(object.get("d"));
+        assertEquals("true", object.get("e"));
+    }
+
+    @Test
+    void rejectsNonJsonNumbers() {
+        for (String literal : new String[] {"NaN", "-NaN", "Infinity", "-Infinity", "1e999", "0x10", "1d", "01", "+1", ".5"}) {
+            assertThrows(IllegalArgumentException.class, () -> JsonUtil.parseObject("{\"marks\": " + literal + "}"), literal);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Student records carry contact details, so only accounts that manage students may read them
+class SchoolApiServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private SchoolManagementSystem school;
+    private LoginSystem loginSystem;
+    private SchoolApiServer server;
+    private String studentId;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        school = new SchoolManagementSystem();
+        loginSystem = new LoginSystem();
+        studentId = school.addStudent("Ann", "Lee", LocalDate.of(2010, 1, 1), "Female", "5",
+                                      "Bo Lee", "555-0100", "bo@example.com", "1 Main St");
+        String teacherId = school.addTeacher("Cy", "Park", "cy@example.com", "555-0101", "Math", "BSc", 1000, "2 Main St");
+        loginSystem.addUser("teacher", "secret", "Teacher", "Cy Park", "cy@example.com", teacherId);
+        loginSystem.addUser("student", "secret", "Student", "Ann Lee", "", studentId);
+        loginSystem.addUser("parent", "secret", "Parent", "Bo Lee", "bo@example.com", studentId);
+
+        server = new SchoolApiServer(school, loginSystem, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void studentRecordsNeedManageStudents() throws Exception {
+        for (String username : new String[] {"teacher", "student", "parent"}) {
+            String token = login(username, "secret");
+            assertEquals(403, get("/api/students", token).statusCode(), username);
+            assertEquals(403, get("/api/students/" + studentId, token).statusCode(), username);
+        }
+
+        String admin = login("admin", "admin123");
+        HttpResponse<String> list = get("/api/students", admin);
+        assertEquals(200, list.statusCode());
+        assertTrue(list.body().contains("555-0100"));
+        assertEquals(200, get("/api/students/" + studentId, admin).statusCode());
+    }
+
+    @Test
+    void studentsStillSeeTheirOwnGpa() throws Exception {
+        String token = login("student", "secret");
+        assertEquals(200, get("/api/students/" + studentId + "/gpa", token).statusCode());
+    }
+
+    @Test
+    void nonFiniteMarksAreRejected() throws Exception {
+        String admin = login("admin", "admin123");
+        for (String marks : new String[] {"\"NaN\"", "\"Infinity\"", "NaN", "1e999"}) {
+            String body = "{\"studentId\": \"" + studentId + "\", \"subject\": \"Math\", \"examType\": \"Final\", "
+                    + "\"semester\": \"Fall\", \"academicYear\": \"2024\", \"marks\": " + marks + "}";
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/grades"))
+                    .header("Authorization", "Bearer " + admin).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, response.statusCode(), marks);
+        }
+        assertEquals(0, school.getGradeCount());
+    }
+
+    private String login(String username, String password) throws Exception {
+        String body = JsonUtil.toJson(Map.of("username", username, "password", password));
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri("/api/login")).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return JsonUtil.parseObject(response.body()).get("token");
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token).GET().build(),
+                           HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}
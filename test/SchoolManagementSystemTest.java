@@ -0,0 +1,64 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// Removing a student drops only that student's grades and attendance, via the per-student indexes
+class SchoolManagementSystemTest {
+    private static final LocalDate MONDAY = LocalDate.of(2025, 9, 1);
+
+    @Test
+    void removingAStudentLeavesOtherRecords() {
+        SchoolManagementSystem school = new SchoolManagementSystem();
+        String ann = addStudent(school, "Ann");
+        String bo = addStudent(school, "Bo");
+        for (int day = 2; day >= 0; day--) {
+            school.markAttendance(ann, MONDAY.plusDays(day), "Present", "");
+            school.markAttendance(bo, MONDAY.plusDays(day), "Absent", "");
+        }
+        school.markAttendance(ann, MONDAY.plusDays(7), "Late", "");
+        school.addGrade(ann, "Math", "Final", 80, 100, "Fall", "2025-2026");
+        school.addGrade(bo, "Math", "Final", 60, 100, "Fall", "2025-2026");
+
+        List<Attendance> annAttendance = school.getStudentAttendance(ann);
+        assertEquals(4, annAttendance.size());
+        for (int i = 1; i < annAttendance.size(); i++) {
+            assertFalse(annAttendance.get(i).getDate().isBefore(annAttendance.get(i - 1).getDate()));
+        }
+
+        assertTrue(school.removeStudent(ann));
+        assertTrue(school.getStudentAttendance(ann).isEmpty());
+        assertEquals(3, school.getStudentAttendance(bo).size());
+        assertEquals(3, school.getAttendanceCount());
+        assertTrue(school.getAttendanceByDate(MONDAY.plusDays(7)).isEmpty());
+        assertEquals(1, school.getAttendanceByDate(MONDAY).size());
+        assertEquals(1, school.getGradeCount());
+        assertEquals(bo, school.getAllGrades().get(0).getStudentId());
+    }
+
+    @Test
+    void orphanedRecordsAreFoundAndCleanedUpPerStudent() {
+        SchoolManagementSystem school = new SchoolManagementSystem();
+        String ann = addStudent(school, "Ann");
+        school.addExistingAttendance(new Attendance("ATT1", "STU9", MONDAY, "Present", ""));
+        school.addExistingAttendance(new Attendance("ATT2", "STU9", MONDAY.plusDays(1), "Present", ""));
+        school.addExistingAttendance(new Attendance("ATT3", ann, MONDAY, "Present", ""));
+        school.addExistingGrade(new Grade("GRD1", "STU9", "Math", "Final", 50, 100, "Fall", "2025-2026"));
+
+        assertEquals(List.of("STU9"), school.getOrphanedAttendanceStudents());
+        assertEquals(List.of("STU9"), school.getOrphanedGradeStudents());
+
+        school.cleanupOrphanedRecords();
+        assertTrue(school.getOrphanedAttendanceStudents().isEmpty());
+        assertTrue(school.getOrphanedGradeStudents().isEmpty());
+        assertEquals(1, school.getAttendanceCount());
+        assertEquals(0, school.getGradeCount());
+        assertTrue(school.getAttendanceByDate(MONDAY.plusDays(1)).isEmpty());
+    }
+
+    private static String addStudent(SchoolManagementSystem school, String firstName) {
+        return school.addStudent(firstName, "Lee", LocalDate.of(2010, 1, 1), "Female", "5",
+                                 "Parent", "555-0100", "parent@example.com", "1 Main St");
+    }
+}